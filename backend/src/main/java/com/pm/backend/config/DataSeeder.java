@@ -1,14 +1,18 @@
 package com.pm.backend.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pm.backend.dto.ListingRequestDTO;
 import com.pm.backend.service.ListingService;
+import com.pm.backend.util.SyntheticListingGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -21,6 +25,7 @@ import java.util.List;
 public class DataSeeder implements CommandLineRunner {
     
     private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+    private static final int IMPORT_CHUNK_SIZE = 1000;
     
     private final ListingService listingService;
     private final ObjectMapper objectMapper;
@@ -30,6 +35,19 @@ public class DataSeeder implements CommandLineRunner {
     
     @Value("${app.seeding.file-path:data/zillow_data.json}")
     private String seedFilePath;
+    
+    // Extra generated listings for scale testing, on top of the seed file
+    @Value("${app.seeding.synthetic-count:0}")
+    private long syntheticCount;
+    
+    @Value("${app.seeding.synthetic-seed:42}")
+    private long syntheticSeed;
+    
+    // Seed on a background thread so the port opens right away; readiness reports OUT_OF_SERVICE meanwhile
+    @Value("${app.seeding.background:false}")
+    private boolean backgroundSeeding;
+    
+    private volatile boolean seeding;
 
     public DataSeeder(ListingService listingService, ObjectMapper objectMapper) {
         this.listingService = listingService;
@@ -43,24 +61,36 @@ public class DataSeeder implements CommandLineRunner {
             return;
         }
         
-        if (shouldSeedDatabase()) {
-            seedDatabase();
+        seeding = true;
+        if (backgroundSeeding) {
+            logger.info("🌱 Seeding in the background");
+            Thread.ofVirtual().name("data-seeder").start(this::seedIfEmpty);
         } else {
-            logger.info("📊 Database already contains listings, skipping seeding");
+            seedIfEmpty();
+        }
+    }
+
+    public boolean isSeeding() {
+        return seeding;
+    }
+
+    private void seedIfEmpty() {
+        try {
+            if (shouldSeedDatabase()) {
+                seedDatabase();
+                seedSyntheticListings();
+            } else {
+                logger.info("📊 Database already contains listings, skipping seeding");
+            }
+        } finally {
+            seeding = false;
         }
     }
 
     private boolean shouldSeedDatabase() {
         try {
             // Check if we already have listings
-            List<?> existingListings = listingService.getListings();
-            boolean isEmpty = existingListings.isEmpty();
-            
-            if (!isEmpty) {
-                logger.info("📋 Found {} existing listings in database", existingListings.size());
-            }
-            
-            return isEmpty;
+            return !listingService.hasListings();
         } catch (Exception e) {
             logger.error("❌ Error checking existing listings", e);
             return false;
@@ -71,8 +101,10 @@ public class DataSeeder implements CommandLineRunner {
         logger.info("🌱 Starting database seeding...");
         
         try {
-            // Read JSON file from resources
-            ClassPathResource resource = new ClassPathResource(seedFilePath);
+            // Classpath by default; "file:" paths allow large generated files outside the jar
+            Resource resource = seedFilePath.startsWith("file:")
+                    ? new FileSystemResource(seedFilePath.substring("file:".length()))
+                    : new ClassPathResource(seedFilePath);
             
             if (!resource.exists()) {
                 logger.warn("❌ Seed data file not found at: {}. Skipping database seeding.", seedFilePath);
@@ -81,65 +113,106 @@ public class DataSeeder implements CommandLineRunner {
             
             logger.info("📂 Loading seed data from: {}", seedFilePath);
             
-            InputStream inputStream = resource.getInputStream();
+            ImportTotals totals = new ImportTotals();
+            List<ListingRequestDTO> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
             
-            // Read as JsonNode array first to handle data transformation
-            JsonNode rootNode = objectMapper.readTree(inputStream);
-            
-            if (!rootNode.isArray()) {
-                logger.error("❌ Seed data file must contain an array of listings");
-                return;
+            // Stream either a JSON array or NDJSON, importing a chunk at a time
+            try (InputStream inputStream = resource.getInputStream();
+                 MappingIterator<JsonNode> listingNodes = objectMapper.readerFor(JsonNode.class).readValues(inputStream)) {
+                while (listingNodes.hasNext()) {
+                    totals.read++;
+                    addTransformed(listingNodes.next(), chunk, totals);
+                    if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                        importChunk(chunk, totals);
+                    }
+                }
             }
+            importChunk(chunk, totals);
             
-            List<ListingRequestDTO> listings = new ArrayList<>();
-            int skippedCount = 0;
+            logger.info("📊 Processed {} listings from file", totals.read);
+            totals.log();
             
-            // Transform each JSON object to ListingRequestDTO
-            for (JsonNode listingNode : rootNode) {
-                try {
-                    ListingRequestDTO dto = transformZillowData(listingNode);
-                    listings.add(dto);
-                } catch (Exception e) {
-                    logger.warn("⚠️  Skipping invalid listing: {}", e.getMessage());
-                    skippedCount++;
+        } catch (IOException e) {
+            logger.error("💥 Failed to read seed data file: {}", e.getMessage(), e);
+        } catch (Exception e) {
+            logger.error("💥 Database seeding failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void seedSyntheticListings() {
+        if (syntheticCount <= 0) {
+            return;
+        }
+        logger.info("🧪 Generating {} synthetic listings (seed {})...", syntheticCount, syntheticSeed);
+        
+        try {
+            SyntheticListingGenerator generator = SyntheticListingGenerator.fromSeedFile(objectMapper, syntheticSeed);
+            ImportTotals totals = new ImportTotals();
+            List<ListingRequestDTO> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            
+            for (long i = 0; i < syntheticCount; i++) {
+                totals.read++;
+                addTransformed(generator.generate(i), chunk, totals);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    importChunk(chunk, totals);
                 }
             }
+            importChunk(chunk, totals);
+            totals.log();
             
-            logger.info("📊 Processed {} listings from file", rootNode.size());
-            logger.info("✅ Successfully transformed {} listings", listings.size());
-            
-            if (skippedCount > 0) {
-                logger.warn("⚠️  Skipped {} invalid listings", skippedCount);
+        } catch (Exception e) {
+            logger.error("💥 Synthetic seeding failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void addTransformed(JsonNode listingNode, List<ListingRequestDTO> chunk, ImportTotals totals) {
+        try {
+            chunk.add(transformZillowData(listingNode));
+        } catch (Exception e) {
+            logger.warn("⚠️  Skipping invalid listing: {}", e.getMessage());
+            totals.skipped++;
+        }
+    }
+
+    // Each chunk is its own bulk import transaction, so memory stays flat however large the input is
+    private void importChunk(List<ListingRequestDTO> chunk, ImportTotals totals) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ListingService.BulkImportResult result = listingService.bulkImportListings(chunk);
+        totals.imported += result.getSuccessCount();
+        totals.failed += result.getErrorCount();
+        if (totals.errors.size() < 5) {
+            totals.errors.addAll(result.getErrors().subList(0, Math.min(result.getErrors().size(), 5 - totals.errors.size())));
+        }
+        chunk.clear();
+    }
+
+    private static class ImportTotals {
+        long read;
+        long skipped;
+        long imported;
+        long failed;
+        final List<String> errors = new ArrayList<>();
+
+        void log() {
+            if (skipped > 0) {
+                logger.warn("⚠️  Skipped {} invalid listings", skipped);
             }
-            
-            if (listings.isEmpty()) {
+            if (imported + failed == 0) {
                 logger.warn("❌ No valid listings to import");
                 return;
             }
             
-            // Use existing bulk import
-            ListingService.BulkImportResult result = listingService.bulkImportListings(listings);
-            
             logger.info("🎉 Database seeding completed!");
-            logger.info("✅ Successfully imported: {} listings", result.getSuccessCount());
-            logger.info("❌ Failed imports: {} listings", result.getErrorCount());
-            logger.info("📈 Success rate: {:.1f}%", result.getSuccessRate());
+            logger.info("✅ Successfully imported: {} listings", imported);
+            logger.info("❌ Failed imports: {} listings", failed);
+            logger.info("📈 Success rate: {}%", String.format("%.1f", 100.0 * imported / (imported + failed)));
             
-            if (!result.getErrors().isEmpty()) {
+            if (!errors.isEmpty()) {
                 logger.warn("⚠️  First few errors:");
-                result.getErrors().stream()
-                    .limit(5)
-                    .forEach(error -> logger.warn("   • {}", error));
-                
-                if (result.getErrors().size() > 5) {
-                    logger.warn("   • ... and {} more errors", result.getErrors().size() - 5);
-                }
+                errors.forEach(error -> logger.warn("   • {}", error));
             }
-            
-        } catch (IOException e) {
-            logger.error("💥 Failed to read seed data file: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("💥 Database seeding failed: {}", e.getMessage(), e);
         }
     }
     
@@ -0,0 +1,110 @@
+package com.pm.backend.config;
+
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.util.PrecompressedJson;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Writes a single EncodedListing as JSON, using its pre-compressed body when the client accepts gzip.
+// Responses that already carry Content-Encoding are left alone by the container's own compression.
+public class EncodedListingGzipConverter extends AbstractHttpMessageConverter<EncodedListing> {
+
+    public EncodedListingGzipConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedListing.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedListing readInternal(Class<? extends EncodedListing> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("EncodedListing is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(EncodedListing listing, MediaType contentType) {
+        if (listing.getGzip() != null && acceptsGzip()) {
+            return (long) listing.getGzip().gzipLength(listing.getTail());
+        }
+        return (long) listing.getBody().byteLength() + listing.getTail().byteLength();
+    }
+
+    @Override
+    protected void writeInternal(EncodedListing listing, HttpOutputMessage outputMessage) throws IOException {
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        OutputStream out = outputMessage.getBody();
+        PrecompressedJson gzip = listing.getGzip();
+        if (gzip != null && acceptsGzip()) {
+            gzip.writeGzip(listing.getTail(), out);
+        } else {
+            listing.getBody().writeUnquotedUTF8(out);
+            listing.getTail().writeUnquotedUTF8(out);
+        }
+    }
+
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, EncodedListing listing, MediaType contentType) throws IOException {
+        // Content-Encoding has to be decided before the headers are committed
+        if (listing.getGzip() != null && acceptsGzip()) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        super.addDefaultHeaders(headers, listing, contentType);
+    }
+
+    // True unless the current request has no Accept-Encoding or explicitly refuses gzip with q=0
+    static boolean acceptsGzip() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && isZeroQuality(param.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.pm.backend.config;
+
+import com.pm.backend.controller.ListingController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+@Configuration
+public class FastStartConfiguration {
+    // Created at startup even under spring.main.lazy-initialization; the controller pulls in the
+    // listing service, repositories, JSON cache and the JPA/DataSource stack behind them
+    private static final List<Class<?>> EAGER_TYPES = List.of(ListingController.class);
+
+    // Keeps the first listing request from paying for bean creation, and keeps @Scheduled jobs
+    // running since a lazy bean that nothing injects would never be created
+    @Bean
+    static LazyInitializationExcludeFilter eagerReadPathFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType)) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -0,0 +1,69 @@
+package com.pm.backend.config;
+
+import com.pm.backend.dto.ListingBinaryDTO;
+import com.pm.backend.dto.ListingChangeDTO;
+import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.ListingOutboxEvent;
+import com.pm.backend.model.ListingOutboxGap;
+import com.pm.backend.model.OutboxOffset;
+import com.pm.backend.model.PhotoUrlTemplate;
+import com.pm.backend.model.SavedListing;
+import com.pm.backend.model.SavedSearch;
+import com.pm.backend.model.SavedSearchAlert;
+import com.pm.backend.model.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+// Reflection and resource hints for the native image (mvn -Pnative package) that AOT processing can't infer
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt 0.11 creates its implementation classes by name from the API jar
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Entities: Hibernate reads and writes fields reflectively, and ListingSpecification's
+        // root.get("...") lookups resolve against the metamodel built from those fields. The
+        // specification lambdas themselves are plain compiled code and are never serialized.
+        for (Class<?> entity : List.of(Listing.class, User.class, SavedListing.class, PhotoUrlTemplate.class,
+                SavedSearch.class, SavedSearchAlert.class, ListingOutboxEvent.class, ListingOutboxGap.class,
+                OutboxOffset.class)) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (String type : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Serialized by ListingJsonCache, the binary converters and the outbox outside any controller signature
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), ListingResponseDTO.class, ListingBinaryDTO.class,
+                ListingChangeDTO.class);
+
+        hints.resources().registerPattern("data/*.json");
+
+        // The second-level cache's JCache provider is looked up by name
+        hints.reflection().registerType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
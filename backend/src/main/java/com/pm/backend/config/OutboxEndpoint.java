@@ -0,0 +1,39 @@
+package com.pm.backend.config;
+
+import com.pm.backend.service.ListingOutboxService;
+import com.pm.backend.service.OutboxRelay;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Operator view of the listing outbox: the newest change and each sink's offset, and replay from an id.
+// Not exposed over HTTP by default (see management.endpoints.web.exposure.include).
+@Component
+@Endpoint(id = "outbox")
+public class OutboxEndpoint {
+    private final ListingOutboxService listingOutboxService;
+    private final OutboxRelay outboxRelay;
+
+    public OutboxEndpoint(ListingOutboxService listingOutboxService, OutboxRelay outboxRelay) {
+        this.listingOutboxService = listingOutboxService;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @ReadOperation
+    public Map<String, Object> offsets() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lastChangeId", listingOutboxService.getLastId());
+        result.put("sinks", outboxRelay.getOffsets());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay(String sink, long afterId) {
+        outboxRelay.replay(sink, afterId);
+        return offsets();
+    }
+}
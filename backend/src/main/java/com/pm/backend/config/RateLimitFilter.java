@@ -0,0 +1,127 @@
+package com.pm.backend.config;
+
+import com.pm.backend.exception.RateLimitExceededException;
+import com.pm.backend.model.User;
+import com.pm.backend.util.TokenBucket;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Token-bucket limits per client (the signed-in user, else the remote address, which behind a proxy is
+// only the client's when server.forward-headers-strategy is set). Each request is
+// charged to the first matching route's bucket, or to the client's default bucket. While a database
+// pool has threads queued for a connection, every request costs more, so heavy clients are throttled
+// first and light browsing keeps working.
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String DEFAULT_ROUTE = "default";
+
+    private final RateLimitProperties properties;
+    private final List<HikariDataSource> pools;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, List<HikariDataSource> pools,
+                           HandlerExceptionResolver handlerExceptionResolver) {
+        this.properties = properties;
+        this.pools = pools;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Route route = matchRoute(request);
+        String routeName = route != null ? route.getName() : DEFAULT_ROUTE;
+        RateLimitProperties.Limit limit = route != null ? route : properties.getDefaults();
+
+        long now = System.nanoTime();
+        String key = routeName + '|' + clientKey(request);
+        TokenBucket bucket = buckets.computeIfAbsent(key,
+                k -> new TokenBucket(limit.getCapacity(), limit.intervalNanos(), now));
+
+        // Capped at the bucket's capacity: a route with a smaller burst than the shedding cost could
+        // otherwise never admit a request, and every Retry-After would promise a retry that fails again
+        int cost = isDatabaseSaturated() ? (int) Math.min(properties.getSheddingCost(), limit.getCapacity()) : 1;
+        long waitNanos = bucket.tryAcquire(cost, now);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new RateLimitExceededException(key + " (cost " + cost + ")", retryAfterSeconds));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Full buckets carry no state worth keeping
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval:1m}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        logger.debug("Evicted {} idle rate limit buckets, {} remain", before - buckets.size(), buckets.size());
+    }
+
+    private RateLimitProperties.Route matchRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getMethod() != null && !route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (route.getWithoutParams().stream().anyMatch(param -> request.getParameter(param) != null)) {
+                continue;
+            }
+            if (pathMatcher.match(route.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private boolean isDatabaseSaturated() {
+        for (HikariDataSource dataSource : pools) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null && pool.getThreadsAwaitingConnection() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,69 @@
+package com.pm.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// app.rate-limit.*: a default per-client budget plus stricter budgets for individual routes
+@ConfigurationProperties("app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    private List<Route> routes = new ArrayList<>();
+    // Cost of one request while a database pool has threads waiting for a connection
+    private int sheddingCost = 4;
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Limit getDefaults() { return defaults; }
+    public void setDefaults(Limit defaults) { this.defaults = defaults; }
+
+    public List<Route> getRoutes() { return routes; }
+    public void setRoutes(List<Route> routes) { this.routes = routes; }
+
+    public int getSheddingCost() { return sheddingCost; }
+    public void setSheddingCost(int sheddingCost) { this.sheddingCost = sheddingCost; }
+
+    public Duration getEvictionInterval() { return evictionInterval; }
+    public void setEvictionInterval(Duration evictionInterval) { this.evictionInterval = evictionInterval; }
+
+    // capacity requests in a burst, refilled at capacity per period
+    public static class Limit {
+        private long capacity = 100;
+        private Duration period = Duration.ofSeconds(10);
+
+        public long getCapacity() { return capacity; }
+        public void setCapacity(long capacity) { this.capacity = capacity; }
+
+        public Duration getPeriod() { return period; }
+        public void setPeriod(Duration period) { this.period = period; }
+
+        public long intervalNanos() {
+            return Math.max(1, period.toNanos() / capacity);
+        }
+    }
+
+    public static class Route extends Limit {
+        private String name;
+        private String method;
+        private String path;
+        // Only match requests with none of these query parameters (e.g. unpaginated listing dumps)
+        private List<String> withoutParams = new ArrayList<>();
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public List<String> getWithoutParams() { return withoutParams; }
+        public void setWithoutParams(List<String> withoutParams) { this.withoutParams = withoutParams; }
+    }
+}
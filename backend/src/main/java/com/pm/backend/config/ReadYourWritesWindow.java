@@ -0,0 +1,69 @@
+package com.pm.backend.config;
+
+import com.pm.backend.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers which clients committed a write recently, so their reads stay on the primary until
+// the replica has had time to catch up. Clients are the signed-in user, else the remote address;
+// work outside a request (seeding, scheduled jobs) has no client and is never pinned.
+public class ReadYourWritesWindow {
+    private static final int PURGE_THRESHOLD = 10000;
+
+    private final long windowNanos;
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+
+    public ReadYourWritesWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite() {
+        String client = currentClient();
+        if (client == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (deadlines.size() >= PURGE_THRESHOLD) {
+            deadlines.values().removeIf(deadline -> deadline - now <= 0);
+        }
+        deadlines.put(client, now + windowNanos);
+    }
+
+    public boolean isActive() {
+        String client = currentClient();
+        if (client == null) {
+            return false;
+        }
+        Long deadline = deadlines.get(client);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - System.nanoTime() <= 0) {
+            deadlines.remove(client, deadline);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return "addr:" + request.getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.pm.backend.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import java.net.URI;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Regions of Hibernate's second-level cache (see the @Cache annotations on the entities), held in Caffeine
+// through JCache. Entity regions are bounded by estimated heap rather than entry count, since listings
+// vary widely in size with their JSON columns.
+@Configuration
+public class SecondLevelCacheConfiguration {
+    public static final String LISTING_REGION = "listing";
+    public static final String USER_REGION = "user";
+    public static final String USER_EMAIL_REGION = "user-email";
+    public static final String PHOTO_TEMPLATE_REGION = "photo-url-template";
+
+    // Each application context gets a manager of its own; a shared one would leak entries between
+    // contexts on different databases in one JVM, as in the test suite
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(@Value("${app.second-level-cache.listing-max-size:64MB}") DataSize listingMaxSize,
+                                         @Value("${app.second-level-cache.user-max-size:8MB}") DataSize userMaxSize,
+                                         @Value("${app.second-level-cache.user-email-max-size:4MB}") DataSize userEmailMaxSize,
+                                         @Value("${app.second-level-cache.photo-template-max-entries:1000}") long photoTemplateMaxEntries) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(LISTING_REGION, weighted(listingMaxSize));
+        cacheManager.createCache(USER_REGION, weighted(userMaxSize));
+        cacheManager.createCache(USER_EMAIL_REGION, weighted(userEmailMaxSize));
+
+        CaffeineConfiguration<Object, Object> photoTemplates = new CaffeineConfiguration<>();
+        photoTemplates.setMaximumSize(OptionalLong.of(photoTemplateMaxEntries));
+        photoTemplates.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(PHOTO_TEMPLATE_REGION, photoTemplates);
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> weighted(DataSize maxSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumWeight(OptionalLong.of(maxSize.toBytes()));
+        configuration.setWeigherFactory(Optional.of(new FactoryBuilder.SingletonFactory<Weigher<Object, Object>>(new SecondLevelCacheWeigher())));
+        // Caffeine's own counters back the eviction metrics (SecondLevelCacheMetrics)
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
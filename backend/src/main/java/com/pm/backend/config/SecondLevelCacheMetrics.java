@@ -0,0 +1,50 @@
+package com.pm.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+
+// Occupancy and evictions of the second-level cache regions. Hit, miss and put counts per region come
+// from Hibernate's statistics (hibernate.second.level.cache.* and hibernate.cache.natural.id.*); these add
+// what the regions hold against their bounds.
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private final CacheManager secondLevelCacheManager;
+
+    public SecondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        this.secondLevelCacheManager = secondLevelCacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : secondLevelCacheManager.getCacheNames()) {
+            Cache<?, ?> cache = secondLevelCacheManager.getCache(region).unwrap(Cache.class);
+            Gauge.builder("hibernate.second.level.cache.entries", cache, Cache::estimatedSize)
+                    .tag("region", region)
+                    .description("Approximate number of entries in the region")
+                    .register(registry);
+            cache.policy().eviction().ifPresent(eviction -> {
+                if (eviction.isWeighted()) {
+                    Gauge.builder("hibernate.second.level.cache.weight", eviction, e -> e.weightedSize().orElse(0))
+                            .tag("region", region)
+                            .baseUnit("bytes")
+                            .description("Estimated heap held by the region")
+                            .register(registry);
+                }
+                Gauge.builder("hibernate.second.level.cache.max.weight", eviction, e -> e.getMaximum())
+                        .tag("region", region)
+                        .description("Bound of the region, in bytes for weighted regions and entries otherwise")
+                        .register(registry);
+            });
+            FunctionCounter.builder("hibernate.second.level.cache.evictions", cache, c -> c.stats().evictionCount())
+                    .tag("region", region)
+                    .description("Entries evicted to stay within the region's bound")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.pm.backend.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import java.math.BigDecimal;
+
+// Approximate heap bytes of a second-level cache entry, so a region is bounded by memory rather than by
+// entry count: a listing with large facts-and-features and variable-data JSON weighs many times one
+// without.
+public class SecondLevelCacheWeigher implements Weigher<Object, Object> {
+    // Map node, Hibernate's cache key and entry wrappers
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = ENTRY_OVERHEAD + estimate(key);
+        // READ_WRITE regions wrap the entry in an item (or hold a soft lock while it is being written)
+        Object entry = value instanceof AbstractReadWriteAccess.Lockable lockable ? lockable.getValue() : value;
+        if (entry instanceof CacheEntry cacheEntry) {
+            Object[] state = cacheEntry.getDisassembledState();
+            bytes += OBJECT_HEADER + (long) REFERENCE * state.length;
+            for (Object field : state) {
+                bytes += estimate(field);
+            }
+        } else {
+            bytes += estimate(entry);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        // Compact strings: one byte per Latin-1 character, two otherwise
+        if (value instanceof String string) {
+            return 40 + string.length();
+        }
+        if (value instanceof String[] strings) {
+            long bytes = OBJECT_HEADER + (long) REFERENCE * strings.length;
+            for (String string : strings) {
+                bytes += estimate(string);
+            }
+            return bytes;
+        }
+        if (value instanceof Object[] values) {
+            long bytes = OBJECT_HEADER + (long) REFERENCE * values.length;
+            for (Object element : values) {
+                bytes += estimate(element);
+            }
+            return bytes;
+        }
+        if (value instanceof BigDecimal) {
+            return 40;
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_HEADER + bytes.length;
+        }
+        // Boxed numbers, booleans, timestamps
+        return 24;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pm.backend.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Part of the readiness group so traffic is held back until the seed data is in
+@Component
+public class SeedingHealthIndicator implements HealthIndicator {
+    private final DataSeeder dataSeeder;
+
+    public SeedingHealthIndicator(DataSeeder dataSeeder) {
+        this.dataSeeder = dataSeeder;
+    }
+
+    @Override
+    public Health health() {
+        if (dataSeeder.isSeeding()) {
+            return Health.outOfService().withDetail("seeding", "in progress").build();
+        }
+        return Health.up().build();
+    }
+}
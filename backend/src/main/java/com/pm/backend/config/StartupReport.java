@@ -0,0 +1,60 @@
+package com.pm.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.Comparator;
+import java.util.List;
+
+// Logs where startup time went once the application is ready to serve
+@Component
+public class StartupReport {
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+    private static final int SLOWEST_BEANS = 10;
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        boolean lazy = context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class, false);
+        boolean cds = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile="));
+
+        logger.info("⏱️ Ready in {} ms (JVM up {} ms), {} of {} singletons created, lazy-init={}, CDS archive={}",
+                event.getTimeTaken() == null ? "?" : event.getTimeTaken().toMillis(),
+                runtime.getUptime(),
+                context.getBeanFactory().getSingletonCount(),
+                context.getBeanDefinitionCount(),
+                lazy,
+                cds);
+
+        // Bean timings are only recorded when main() installs a BufferingApplicationStartup
+        if (context.getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            List<StartupTimeline.TimelineEvent> slowest = startup.getBufferedTimeline().getEvents().stream()
+                    .filter(timelineEvent -> "spring.beans.instantiate".equals(timelineEvent.getStartupStep().getName()))
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(SLOWEST_BEANS)
+                    .toList();
+            for (StartupTimeline.TimelineEvent timelineEvent : slowest) {
+                logger.info("   {} ms  {}", timelineEvent.getDuration().toMillis(), beanName(timelineEvent.getStartupStep()));
+            }
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
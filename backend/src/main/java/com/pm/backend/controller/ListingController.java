@@ -1,20 +1,35 @@
 package com.pm.backend.controller;
 
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingBatchRequestDTO;
+import com.pm.backend.dto.ListingBatchResponseDTO;
+import com.pm.backend.dto.ListingChangePageResponseDTO;
 import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.dto.ListingPhotosResponseDTO;
 import com.pm.backend.dto.ListingRequestDTO;
 import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.dto.SaveableListing;
+import com.pm.backend.model.User;
+import com.pm.backend.service.ListingOutboxService;
 import com.pm.backend.service.ListingService;
+import com.pm.backend.service.ListingStreamService;
+import com.pm.backend.service.SavedListingService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,9 +39,16 @@ public class ListingController {
     private static final Logger logger = LoggerFactory.getLogger(ListingController.class);
     
     private final ListingService listingService;
+    private final SavedListingService savedListingService;
+    private final ListingStreamService listingStreamService;
+    private final ListingOutboxService listingOutboxService;
 
-    public ListingController(ListingService listingService) {
+    public ListingController(ListingService listingService, SavedListingService savedListingService,
+                             ListingStreamService listingStreamService, ListingOutboxService listingOutboxService) {
         this.listingService = listingService;
+        this.savedListingService = savedListingService;
+        this.listingStreamService = listingStreamService;
+        this.listingOutboxService = listingOutboxService;
     }
 
     @GetMapping
@@ -46,29 +68,21 @@ public class ListingController {
             @RequestParam(required = false) List<String> zipCodes,
             @RequestParam(required = false) Integer beds,
             @RequestParam(required = false) Integer baths,
-            @RequestParam(required = false) String availableBy) {
+            @RequestParam(required = false) String availableBy,
+            @RequestParam(required = false) Boolean hasAirConditioning,
+            @RequestParam(required = false) Boolean hasFireplace,
+            @RequestParam(required = false) Boolean hasPool,
+            @RequestParam(required = false) Boolean hasSpa,
+            @RequestParam(required = false) List<String> variableDataTypes) {
         
         try {
-            // Create filter criteria
-            ListingFilterCriteriaDTO filters = new ListingFilterCriteriaDTO();
-            filters.setMinPrice(minPrice);
-            filters.setMaxPrice(maxPrice);
-            filters.setMinArea(minArea);
-            filters.setMaxArea(maxArea);
-            filters.setCities(cities);
-            filters.setZipCodes(zipCodes);
-            filters.setBeds(beds);
-            filters.setBaths(baths);
-            
-            // Parse availability date if provided
-            if (availableBy != null && !availableBy.trim().isEmpty()) {
-                try {
-                    LocalDateTime availabilityDate = LocalDateTime.parse(availableBy, DateTimeFormatter.ISO_DATE_TIME);
-                    filters.setAvailableBy(availabilityDate);
-                } catch (DateTimeParseException e) {
-                    logger.warn("Invalid date format for availableBy parameter: {}", availableBy);
-                    return ResponseEntity.badRequest().body("Invalid date format for availableBy parameter. Use ISO format (e.g., 2024-12-31T00:00:00)");
-                }
+            ListingFilterCriteriaDTO filters;
+            try {
+                filters = toFilters(minPrice, maxPrice, minArea, maxArea, cities, zipCodes, beds, baths, availableBy,
+                        hasAirConditioning, hasFireplace, hasPool, hasSpa, variableDataTypes);
+            } catch (DateTimeParseException e) {
+                logger.warn("Invalid date format for availableBy parameter: {}", availableBy);
+                return ResponseEntity.badRequest().body("Invalid date format for availableBy parameter. Use ISO format (e.g., 2024-12-31T00:00:00)");
             }
 
             logger.info("Fetching listings with filters: {}", filters);
@@ -78,12 +92,14 @@ public class ListingController {
                 int pageNum = page != null ? page : 0;
                 int pageSize = size != null ? size : 20;
                 
-                Page<ListingResponseDTO> paginatedListings = listingService.getFilteredListings(
+                Page<EncodedListing> paginatedListings = listingService.getFilteredListings(
                     pageNum, pageSize, sortBy, sortDir, filters);
+                markSaved(paginatedListings.getContent());
                 return ResponseEntity.ok(paginatedListings);
             } else {
                 // For backward compatibility, return all listings (filtered if filters provided)
-                List<ListingResponseDTO> listings = listingService.getFilteredListings(filters);
+                List<EncodedListing> listings = listingService.getFilteredListings(filters);
+                markSaved(listings);
                 return ResponseEntity.ok(listings);
             }
             
@@ -93,15 +109,78 @@ public class ListingController {
         }
     }
 
+    // Pushes created, updated and deleted listings matching the same filters as GET /listings.
+    // Events are named after the change; created and updated carry the listing card, deleted its zpid.
+    // An update that moves a listing out of the filters is sent as "removed" with its zpid.
+    // A "resync" event means changes were dropped and the client should refetch.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamListings(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minArea,
+            @RequestParam(required = false) Integer maxArea,
+            @RequestParam(required = false) List<String> cities,
+            @RequestParam(required = false) List<String> zipCodes,
+            @RequestParam(required = false) Integer beds,
+            @RequestParam(required = false) Integer baths,
+            @RequestParam(required = false) String availableBy,
+            @RequestParam(required = false) Boolean hasAirConditioning,
+            @RequestParam(required = false) Boolean hasFireplace,
+            @RequestParam(required = false) Boolean hasPool,
+            @RequestParam(required = false) Boolean hasSpa,
+            @RequestParam(required = false) List<String> variableDataTypes) {
+        ListingFilterCriteriaDTO filters;
+        try {
+            filters = toFilters(minPrice, maxPrice, minArea, maxArea, cities, zipCodes, beds, baths, availableBy,
+                    hasAirConditioning, hasFireplace, hasPool, hasSpa, variableDataTypes);
+        } catch (DateTimeParseException e) {
+            logger.warn("Invalid date format for availableBy parameter: {}", availableBy);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                    .body("Invalid date format for availableBy parameter. Use ISO format (e.g., 2024-12-31T00:00:00)");
+        }
+
+        SseEmitter emitter = listingStreamService.subscribe(filters);
+        // Stops proxies such as nginx from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
+    // Incremental sync from the outbox: every create, update and delete after the given change id, in order.
+    // Start from 0 and keep passing nextCursor; a 410 means the cursor is older than the retained changes.
+    @GetMapping("/changes")
+    public ResponseEntity<ListingChangePageResponseDTO> getListingChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(listingOutboxService.getChanges(after, limit));
+    }
+
     @GetMapping("/{zpid}")
-    public ResponseEntity<ListingResponseDTO> getListing(@PathVariable String zpid) {
-        Optional<ListingResponseDTO> listing = listingService.getListing(zpid);
+    public ResponseEntity<EncodedListing> getListing(@PathVariable String zpid) {
+        Optional<EncodedListing> listing = listingService.getListing(zpid);
+        listing.ifPresent(dto -> markSaved(List.of(dto)));
         
         return listing
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
+    // Several listings by zpid in one call, for the compare view and saved-listings page.
+    // Listings come back in the order requested; zpids with no listing are reported under "missing".
+    @PostMapping("/batch")
+    public ResponseEntity<ListingBatchResponseDTO> getListingBatch(@Valid @RequestBody ListingBatchRequestDTO request) {
+        ListingBatchResponseDTO batch = listingService.getListings(request.getZpids(), request.getView());
+        markSaved(batch.getListings());
+        return ResponseEntity.ok(batch);
+    }
+
+    @GetMapping("/{zpid}/photos")
+    public ResponseEntity<ListingPhotosResponseDTO> getListingPhotos(
+            @PathVariable String zpid,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit) {
+        ListingPhotosResponseDTO photos = listingService.getListingPhotos(zpid, offset, limit);
+        return ResponseEntity.ok(photos);
+    }
+
     @PostMapping
     public ResponseEntity<ListingResponseDTO> createListing(@Valid @RequestBody ListingRequestDTO listingRequestDTO) {
         ListingResponseDTO listingResponseDTO = listingService.createListing(listingRequestDTO);
@@ -150,4 +229,38 @@ public class ListingController {
             return ResponseEntity.status(500).build();
         }
     }
+
+    private static ListingFilterCriteriaDTO toFilters(BigDecimal minPrice, BigDecimal maxPrice, Integer minArea, Integer maxArea,
+                                                      List<String> cities, List<String> zipCodes, Integer beds, Integer baths,
+                                                      String availableBy, Boolean hasAirConditioning, Boolean hasFireplace,
+                                                      Boolean hasPool, Boolean hasSpa, List<String> variableDataTypes) {
+        ListingFilterCriteriaDTO filters = new ListingFilterCriteriaDTO();
+        filters.setMinPrice(minPrice);
+        filters.setMaxPrice(maxPrice);
+        filters.setMinArea(minArea);
+        filters.setMaxArea(maxArea);
+        filters.setCities(cities);
+        filters.setZipCodes(zipCodes);
+        filters.setBeds(beds);
+        filters.setBaths(baths);
+        filters.setHasAirConditioning(hasAirConditioning);
+        filters.setHasFireplace(hasFireplace);
+        filters.setHasPool(hasPool);
+        filters.setHasSpa(hasSpa);
+        filters.setVariableDataTypes(variableDataTypes);
+
+        // Parse availability date if provided
+        if (availableBy != null && !availableBy.trim().isEmpty()) {
+            filters.setAvailableBy(LocalDateTime.parse(availableBy, DateTimeFormatter.ISO_DATE_TIME));
+        }
+        return filters;
+    }
+
+    // Flags each card as saved when the caller is signed in; anonymous responses omit the flag
+    private void markSaved(Collection<? extends SaveableListing> listings) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            savedListingService.markSaved(user.getId(), listings);
+        }
+    }
 }
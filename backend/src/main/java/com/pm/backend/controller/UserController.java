@@ -1,30 +1,42 @@
 package com.pm.backend.controller;
 
+import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.dto.SavedSearchRequestDTO;
+import com.pm.backend.dto.SavedSearchResponseDTO;
+import com.pm.backend.dto.UserPageResponseDTO;
 import com.pm.backend.dto.UserResponseDTO;
 import com.pm.backend.model.User;
+import com.pm.backend.service.SavedListingService;
+import com.pm.backend.service.SavedSearchService;
 import com.pm.backend.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final SavedListingService savedListingService;
+    private final SavedSearchService savedSearchService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, SavedListingService savedListingService,
+                          SavedSearchService savedSearchService) {
         this.userService = userService;
+        this.savedListingService = savedListingService;
+        this.savedSearchService = savedSearchService;
     }
 
     @GetMapping("/me")
     public ResponseEntity<UserResponseDTO> authenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+        User currentUser = currentUser();
 
         UserResponseDTO userResponseDTO = new UserResponseDTO();
         userResponseDTO.setId(currentUser.getId());
@@ -37,9 +49,61 @@ public class UserController {
         return ResponseEntity.ok(userResponseDTO);
     }
 
+    @GetMapping("/me/saved")
+    public ResponseEntity<List<ListingResponseDTO>> savedListings() {
+        List<ListingResponseDTO> savedListings = savedListingService.getSavedListings(currentUser().getId());
+        return ResponseEntity.ok(savedListings);
+    }
+
+    @GetMapping("/me/saved/ids")
+    public ResponseEntity<List<String>> savedListingIds() {
+        List<String> savedZpids = savedListingService.getSavedZpids(currentUser().getId());
+        return ResponseEntity.ok(savedZpids);
+    }
+
+    @PutMapping("/me/saved/{zpid}")
+    public ResponseEntity<Void> saveListing(@PathVariable String zpid) {
+        savedListingService.saveListing(currentUser().getId(), zpid);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/me/saved/{zpid}")
+    public ResponseEntity<Void> removeSavedListing(@PathVariable String zpid) {
+        savedListingService.removeSavedListing(currentUser().getId(), zpid);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/me/saved-searches")
+    public ResponseEntity<List<SavedSearchResponseDTO>> savedSearches() {
+        return ResponseEntity.ok(savedSearchService.getSavedSearches(currentUser().getId()));
+    }
+
+    // New and changed listings matching the search are emailed in periodic digests
+    @PostMapping("/me/saved-searches")
+    public ResponseEntity<SavedSearchResponseDTO> createSavedSearch(@Valid @RequestBody SavedSearchRequestDTO request) {
+        SavedSearchResponseDTO savedSearch = savedSearchService.createSavedSearch(currentUser().getId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearch);
+    }
+
+    @DeleteMapping("/me/saved-searches/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable Long id) {
+        savedSearchService.deleteSavedSearch(currentUser().getId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/")
-    public ResponseEntity<List<User>> allUsers() {
-        List<User> users = userService.allUsers();
+    public ResponseEntity<UserPageResponseDTO> allUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        UserPageResponseDTO users = userService.getUsers(after, size, enabled, createdFrom, createdTo);
         return ResponseEntity.ok(users);
     }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
 }
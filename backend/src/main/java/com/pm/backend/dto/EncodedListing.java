@@ -0,0 +1,92 @@
+package com.pm.backend.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.pm.backend.mapper.ListingMapper;
+import com.pm.backend.model.Listing;
+import com.pm.backend.util.PrecompressedJson;
+import com.pm.backend.util.RawJson;
+
+import java.io.IOException;
+
+// A listing whose JSON was encoded ahead of time. The body is the object without its closing
+// brace, so the per-request saved flag can be appended without touching the cached bytes.
+// Binary formats cannot take raw JSON and get the numeric ListingBinaryDTO schema instead.
+// Detail listings may also carry the body pre-compressed, for EncodedListingGzipConverter.
+@JsonSerialize(using = EncodedListing.Serializer.class)
+public class EncodedListing implements SaveableListing {
+    private static final RawJson CLOSE = RawJson.of("}");
+    private static final RawJson SAVED_CLOSE = RawJson.of(",\"saved\":true}");
+    private static final RawJson UNSAVED_CLOSE = RawJson.of(",\"saved\":false}");
+
+    private final Listing listing;
+    private final ListingView view;
+    private final RawJson body;
+    private final PrecompressedJson gzip;
+    private Boolean saved;
+
+    public EncodedListing(Listing listing, ListingView view, RawJson body, PrecompressedJson gzip) {
+        this.listing = listing;
+        this.view = view;
+        this.body = body;
+        this.gzip = gzip;
+    }
+
+    // Shares the encoded bytes but not the per-request saved flag
+    public EncodedListing copy() {
+        return new EncodedListing(listing, view, body, gzip);
+    }
+
+    @Override
+    public String getZpid() { return listing.getZpid(); }
+
+    public ListingView getView() { return view; }
+
+    public RawJson getBody() { return body; }
+
+    public PrecompressedJson getGzip() { return gzip; }
+
+    // Closing bytes that complete the body, carrying the saved flag when one was set
+    public RawJson getTail() {
+        if (saved == null) {
+            return CLOSE;
+        }
+        return saved ? SAVED_CLOSE : UNSAVED_CLOSE;
+    }
+
+    public Boolean getSaved() { return saved; }
+
+    @Override
+    public void setSaved(Boolean saved) { this.saved = saved; }
+
+    @Override
+    public String toString() {
+        return "EncodedListing{" +
+                "zpid='" + listing.getZpid() + '\'' +
+                ", view=" + view +
+                ", bytes=" + body.byteLength() +
+                ", saved=" + saved +
+                '}';
+    }
+
+    public static class Serializer extends StdSerializer<EncodedListing> {
+        public Serializer() {
+            super(EncodedListing.class);
+        }
+
+        @Override
+        public void serialize(EncodedListing listing, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (gen.canWriteBinaryNatively()) {
+                ListingBinaryDTO dto = ListingMapper.toBinaryDTO(listing.listing, listing.view);
+                dto.setSaved(listing.saved);
+                provider.defaultSerializeValue(dto, gen);
+                return;
+            }
+
+            gen.writeRawValue(listing.body);
+            gen.writeRaw(listing.getTail());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pm.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ListingBatchRequestDTO {
+    public static final int MAX_ZPIDS = 500;
+
+    @NotEmpty
+    @Size(max = MAX_ZPIDS)
+    private List<@NotBlank String> zpids;
+
+    // Cards by default, as on the saved-listings page; DETAIL gives the full records for comparing
+    private ListingView view = ListingView.CARD;
+
+    public ListingBatchRequestDTO() {}
+
+    public List<String> getZpids() { return zpids; }
+    public void setZpids(List<String> zpids) { this.zpids = zpids; }
+
+    public ListingView getView() { return view; }
+    public void setView(ListingView view) { this.view = view != null ? view : ListingView.CARD; }
+}
@@ -0,0 +1,42 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public class ListingBatchResponseDTO {
+    // In the order requested, each zpid once
+    private List<EncodedListing> listings;
+
+    // Requested zpids with no listing, in the order requested
+    private List<String> missing;
+
+    public ListingBatchResponseDTO() {}
+
+    public ListingBatchResponseDTO(List<EncodedListing> listings, List<String> missing) {
+        this.listings = listings;
+        this.missing = missing;
+    }
+
+    public List<EncodedListing> getListings() {
+        return listings;
+    }
+
+    public void setListings(List<EncodedListing> listings) {
+        this.listings = listings;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+
+    @Override
+    public String toString() {
+        return "ListingBatchResponseDTO{" +
+                "listings=" + (listings != null ? listings.size() : 0) +
+                ", missing=" + missing +
+                '}';
+    }
+}
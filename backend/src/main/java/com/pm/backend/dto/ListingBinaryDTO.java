@@ -0,0 +1,162 @@
+package com.pm.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Schema used for CBOR/Smile responses: numbers stay numbers (price, coordinates, epoch-millis
+// timestamps) and the JSON blobs are replaced by their extracted typed attributes.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ListingBinaryDTO {
+    
+    // Core identification
+    private String zpid;
+    
+    // Address information
+    private String address;
+    private String addressStreet;
+    private String addressCity;
+    private String addressState;
+    private String addressZipcode;
+    
+    // Location coordinates
+    private double latitude;
+    private double longitude;
+    
+    // Display information
+    private String imgSrc;
+    private String detailUrl;
+    private String statusText;
+    
+    // Property details - monthly rent as a plain number
+    private Double price;
+    private Integer beds;
+    private Integer baths;
+    private Integer area;
+    private Boolean hasVideo;
+    private Integer zestimate;
+    private Integer photoCount;
+    
+    // Epoch milliseconds
+    private Long availabilityDate;
+    private Long createdAt;
+    private Long updatedAt;
+    
+    // Extracted from variableData
+    private String variableDataType;
+    private String variableDataText;
+    
+    // Extracted from factsAndFeatures (detail view only)
+    private Integer fullBathroomCount;
+    private Integer halfBathroomCount;
+    private Boolean hasAirConditioning;
+    private Boolean hasFireplace;
+    private Boolean hasPool;
+    private Boolean hasSpa;
+    
+    private Boolean saved;
+    
+    public ListingBinaryDTO() {}
+    
+    // Getters and Setters
+    public String getZpid() { return zpid; }
+    public void setZpid(String zpid) { this.zpid = zpid; }
+    
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    
+    public String getAddressStreet() { return addressStreet; }
+    public void setAddressStreet(String addressStreet) { this.addressStreet = addressStreet; }
+    
+    public String getAddressCity() { return addressCity; }
+    public void setAddressCity(String addressCity) { this.addressCity = addressCity; }
+    
+    public String getAddressState() { return addressState; }
+    public void setAddressState(String addressState) { this.addressState = addressState; }
+    
+    public String getAddressZipcode() { return addressZipcode; }
+    public void setAddressZipcode(String addressZipcode) { this.addressZipcode = addressZipcode; }
+    
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+    
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+    
+    public String getImgSrc() { return imgSrc; }
+    public void setImgSrc(String imgSrc) { this.imgSrc = imgSrc; }
+    
+    public String getDetailUrl() { return detailUrl; }
+    public void setDetailUrl(String detailUrl) { this.detailUrl = detailUrl; }
+    
+    public String getStatusText() { return statusText; }
+    public void setStatusText(String statusText) { this.statusText = statusText; }
+    
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+    
+    public Integer getBeds() { return beds; }
+    public void setBeds(Integer beds) { this.beds = beds; }
+    
+    public Integer getBaths() { return baths; }
+    public void setBaths(Integer baths) { this.baths = baths; }
+    
+    public Integer getArea() { return area; }
+    public void setArea(Integer area) { this.area = area; }
+    
+    public Boolean getHasVideo() { return hasVideo; }
+    public void setHasVideo(Boolean hasVideo) { this.hasVideo = hasVideo; }
+    
+    public Integer getZestimate() { return zestimate; }
+    public void setZestimate(Integer zestimate) { this.zestimate = zestimate; }
+    
+    public Integer getPhotoCount() { return photoCount; }
+    public void setPhotoCount(Integer photoCount) { this.photoCount = photoCount; }
+    
+    public Long getAvailabilityDate() { return availabilityDate; }
+    public void setAvailabilityDate(Long availabilityDate) { this.availabilityDate = availabilityDate; }
+    
+    public Long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Long createdAt) { this.createdAt = createdAt; }
+    
+    public Long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Long updatedAt) { this.updatedAt = updatedAt; }
+    
+    public String getVariableDataType() { return variableDataType; }
+    public void setVariableDataType(String variableDataType) { this.variableDataType = variableDataType; }
+    
+    public String getVariableDataText() { return variableDataText; }
+    public void setVariableDataText(String variableDataText) { this.variableDataText = variableDataText; }
+    
+    public Integer getFullBathroomCount() { return fullBathroomCount; }
+    public void setFullBathroomCount(Integer fullBathroomCount) { this.fullBathroomCount = fullBathroomCount; }
+    
+    public Integer getHalfBathroomCount() { return halfBathroomCount; }
+    public void setHalfBathroomCount(Integer halfBathroomCount) { this.halfBathroomCount = halfBathroomCount; }
+    
+    public Boolean getHasAirConditioning() { return hasAirConditioning; }
+    public void setHasAirConditioning(Boolean hasAirConditioning) { this.hasAirConditioning = hasAirConditioning; }
+    
+    public Boolean getHasFireplace() { return hasFireplace; }
+    public void setHasFireplace(Boolean hasFireplace) { this.hasFireplace = hasFireplace; }
+    
+    public Boolean getHasPool() { return hasPool; }
+    public void setHasPool(Boolean hasPool) { this.hasPool = hasPool; }
+    
+    public Boolean getHasSpa() { return hasSpa; }
+    public void setHasSpa(Boolean hasSpa) { this.hasSpa = hasSpa; }
+    
+    public Boolean getSaved() { return saved; }
+    public void setSaved(Boolean saved) { this.saved = saved; }
+    
+    @Override
+    public String toString() {
+        return "ListingBinaryDTO{" +
+                "zpid='" + zpid + '\'' +
+                ", price=" + price +
+                ", beds=" + beds +
+                ", baths=" + baths +
+                ", area=" + area +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                '}';
+    }
+}
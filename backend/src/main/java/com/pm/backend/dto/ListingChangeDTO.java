@@ -0,0 +1,44 @@
+package com.pm.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.pm.backend.model.ListingChangeType;
+
+import java.time.LocalDateTime;
+
+public class ListingChangeDTO {
+    private Long id;
+    private String zpid;
+    private ListingChangeType type;
+    private LocalDateTime occurredAt;
+
+    // Detail JSON of the listing after the change, as stored; absent for deletes
+    @JsonRawValue
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String listing;
+
+    public ListingChangeDTO() {}
+
+    public ListingChangeDTO(Long id, String zpid, ListingChangeType type, LocalDateTime occurredAt, String listing) {
+        this.id = id;
+        this.zpid = zpid;
+        this.type = type;
+        this.occurredAt = occurredAt;
+        this.listing = listing;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getZpid() { return zpid; }
+    public void setZpid(String zpid) { this.zpid = zpid; }
+
+    public ListingChangeType getType() { return type; }
+    public void setType(ListingChangeType type) { this.type = type; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public String getListing() { return listing; }
+    public void setListing(String listing) { this.listing = listing; }
+}
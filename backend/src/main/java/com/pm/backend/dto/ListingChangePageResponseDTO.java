@@ -0,0 +1,52 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public class ListingChangePageResponseDTO {
+    private List<ListingChangeDTO> changes;
+
+    // Pass as "after" on the next poll; unchanged when there was nothing new
+    private long nextCursor;
+    private boolean hasMore;
+
+    public ListingChangePageResponseDTO() {}
+
+    public ListingChangePageResponseDTO(List<ListingChangeDTO> changes, long nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<ListingChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ListingChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "ListingChangePageResponseDTO{" +
+                "changes=" + (changes != null ? changes.size() : 0) +
+                ", nextCursor=" + nextCursor +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
@@ -25,6 +25,15 @@ public class ListingFilterCriteriaDTO {
     // Availability filtering
     private LocalDateTime availableBy;
     
+    // Amenity filtering (typed columns extracted from factsAndFeatures)
+    private Boolean hasAirConditioning;
+    private Boolean hasFireplace;
+    private Boolean hasPool;
+    private Boolean hasSpa;
+    
+    // Badge filtering (variableData type, e.g. TIME_ON_INFO or 3D_HOME)
+    private List<String> variableDataTypes;
+    
     // Constructors
     public ListingFilterCriteriaDTO() {}
     
@@ -70,11 +79,28 @@ public class ListingFilterCriteriaDTO {
     public LocalDateTime getAvailableBy() { return availableBy; }
     public void setAvailableBy(LocalDateTime availableBy) { this.availableBy = availableBy; }
     
+    public Boolean getHasAirConditioning() { return hasAirConditioning; }
+    public void setHasAirConditioning(Boolean hasAirConditioning) { this.hasAirConditioning = hasAirConditioning; }
+    
+    public Boolean getHasFireplace() { return hasFireplace; }
+    public void setHasFireplace(Boolean hasFireplace) { this.hasFireplace = hasFireplace; }
+    
+    public Boolean getHasPool() { return hasPool; }
+    public void setHasPool(Boolean hasPool) { this.hasPool = hasPool; }
+    
+    public Boolean getHasSpa() { return hasSpa; }
+    public void setHasSpa(Boolean hasSpa) { this.hasSpa = hasSpa; }
+    
+    public List<String> getVariableDataTypes() { return variableDataTypes; }
+    public void setVariableDataTypes(List<String> variableDataTypes) { this.variableDataTypes = variableDataTypes; }
+    
     // Helper methods to check if filters are applied
     public boolean hasFilters() {
         return minPrice != null || maxPrice != null || minArea != null || maxArea != null ||
                (cities != null && !cities.isEmpty()) || (zipCodes != null && !zipCodes.isEmpty()) ||
-               beds != null || baths != null || availableBy != null;
+               beds != null || baths != null || availableBy != null ||
+               hasAirConditioning != null || hasFireplace != null || hasPool != null || hasSpa != null ||
+               (variableDataTypes != null && !variableDataTypes.isEmpty());
     }
     
     @Override
@@ -89,6 +115,11 @@ public class ListingFilterCriteriaDTO {
                 ", beds=" + beds +
                 ", baths=" + baths +
                 ", availableBy=" + availableBy +
+                ", hasAirConditioning=" + hasAirConditioning +
+                ", hasFireplace=" + hasFireplace +
+                ", hasPool=" + hasPool +
+                ", hasSpa=" + hasSpa +
+                ", variableDataTypes=" + variableDataTypes +
                 '}';
     }
 }
@@ -0,0 +1,54 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public class ListingPhotosResponseDTO {
+    private String zpid;
+
+    // Window of the carousel that was expanded
+    private int offset;
+    private int limit;
+    private int totalCount;
+
+    // Fully expanded photo URLs for the requested window
+    private List<String> photos;
+
+    public ListingPhotosResponseDTO() {}
+
+    public ListingPhotosResponseDTO(String zpid, int offset, int limit, int totalCount, List<String> photos) {
+        this.zpid = zpid;
+        this.offset = offset;
+        this.limit = limit;
+        this.totalCount = totalCount;
+        this.photos = photos;
+    }
+
+    public String getZpid() { return zpid; }
+    public void setZpid(String zpid) { this.zpid = zpid; }
+
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public int getTotalCount() { return totalCount; }
+    public void setTotalCount(int totalCount) { this.totalCount = totalCount; }
+
+    public List<String> getPhotos() { return photos; }
+    public void setPhotos(List<String> photos) { this.photos = photos; }
+
+    public boolean isHasMore() {
+        return offset + (photos != null ? photos.size() : 0) < totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ListingPhotosResponseDTO{" +
+                "zpid='" + zpid + '\'' +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                ", totalCount=" + totalCount +
+                '}';
+    }
+}
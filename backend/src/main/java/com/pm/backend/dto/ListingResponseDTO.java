@@ -2,12 +2,14 @@ package com.pm.backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.pm.backend.model.Listing;
+import com.pm.backend.util.RawJsonStringSerializer;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class ListingResponseDTO {
+public class ListingResponseDTO implements SaveableListing {
     
     // Core identification
     private String zpid;
@@ -50,16 +52,23 @@ public class ListingResponseDTO {
     @JsonProperty("availabilityDate")
     private LocalDateTime availabilityDate;
     
-    // Complex data - can be parsed from JSON strings or kept as objects
+    // Complex data - stored JSON is written through as-is instead of being re-escaped into a string
     @JsonProperty("variableData")
+    @JsonSerialize(using = RawJsonStringSerializer.class)
     private String variableData;
     
-    @JsonProperty("carouselPhotos")
-    private String carouselPhotosComposable;
+    // Carousel URLs are served lazily by /listings/{zpid}/photos
+    @JsonProperty("photoCount")
+    private Integer photoCount;
     
     @JsonProperty("factsAndFeatures")
+    @JsonSerialize(using = RawJsonStringSerializer.class)
     private String factsAndFeatures;
     
+    // Only set for authenticated requests
+    @JsonProperty("saved")
+    private Boolean saved;
+    
     // Auditing fields
     @JsonProperty("createdAt")
     private LocalDateTime createdAt;
@@ -91,7 +100,7 @@ public class ListingResponseDTO {
         this.zestimate = listing.getZestimate();
         this.availabilityDate = listing.getAvailabilityDate();
         this.variableData = listing.getVariableData();
-        this.carouselPhotosComposable = listing.getCarouselPhotosComposable();
+        this.photoCount = listing.getPhotoCount();
         this.factsAndFeatures = listing.getFactsAndFeatures();
         this.createdAt = listing.getCreatedAt();
         this.updatedAt = listing.getUpdatedAt();
@@ -160,12 +169,15 @@ public class ListingResponseDTO {
     public String getVariableData() { return variableData; }
     public void setVariableData(String variableData) { this.variableData = variableData; }
     
-    public String getCarouselPhotosComposable() { return carouselPhotosComposable; }
-    public void setCarouselPhotosComposable(String carouselPhotosComposable) { this.carouselPhotosComposable = carouselPhotosComposable; }
+    public Integer getPhotoCount() { return photoCount; }
+    public void setPhotoCount(Integer photoCount) { this.photoCount = photoCount; }
     
     public String getFactsAndFeatures() { return factsAndFeatures; }
     public void setFactsAndFeatures(String factsAndFeatures) { this.factsAndFeatures = factsAndFeatures; }
     
+    public Boolean getSaved() { return saved; }
+    public void setSaved(Boolean saved) { this.saved = saved; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
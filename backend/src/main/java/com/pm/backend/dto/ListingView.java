@@ -0,0 +1,7 @@
+package com.pm.backend.dto;
+
+// Response shapes for a listing: cards in search results, the full record on the detail page
+public enum ListingView {
+    CARD,
+    DETAIL
+}
@@ -0,0 +1,7 @@
+package com.pm.backend.dto;
+
+// Any listing representation that can carry the per-user saved flag
+public interface SaveableListing {
+    String getZpid();
+    void setSaved(Boolean saved);
+}
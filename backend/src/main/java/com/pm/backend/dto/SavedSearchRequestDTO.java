@@ -0,0 +1,22 @@
+package com.pm.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class SavedSearchRequestDTO {
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+
+    @NotNull
+    private ListingFilterCriteriaDTO criteria;
+
+    public SavedSearchRequestDTO() {}
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public ListingFilterCriteriaDTO getCriteria() { return criteria; }
+    public void setCriteria(ListingFilterCriteriaDTO criteria) { this.criteria = criteria; }
+}
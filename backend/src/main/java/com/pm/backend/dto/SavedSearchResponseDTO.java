@@ -0,0 +1,31 @@
+package com.pm.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class SavedSearchResponseDTO {
+    private Long id;
+    private String name;
+    private ListingFilterCriteriaDTO criteria;
+    private LocalDateTime createdAt;
+
+    public SavedSearchResponseDTO() {}
+
+    public SavedSearchResponseDTO(Long id, String name, ListingFilterCriteriaDTO criteria, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.criteria = criteria;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public ListingFilterCriteriaDTO getCriteria() { return criteria; }
+    public void setCriteria(ListingFilterCriteriaDTO criteria) { this.criteria = criteria; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,52 @@
+package com.pm.backend.dto;
+
+import java.util.List;
+
+public class UserPageResponseDTO {
+    private List<UserResponseDTO> users;
+
+    // Pass as "after" to fetch the next page; null on the last page
+    private Long nextCursor;
+    private boolean hasMore;
+
+    public UserPageResponseDTO() {}
+
+    public UserPageResponseDTO(List<UserResponseDTO> users, Long nextCursor, boolean hasMore) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<UserResponseDTO> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserResponseDTO> users) {
+        this.users = users;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPageResponseDTO{" +
+                "users=" + (users != null ? users.size() : 0) +
+                ", nextCursor=" + nextCursor +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
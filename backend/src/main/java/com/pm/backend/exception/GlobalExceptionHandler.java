@@ -2,6 +2,8 @@ package com.pm.backend.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -48,4 +50,44 @@ public class GlobalExceptionHandler {
         errors.put("message", "Listing not found");
         return ResponseEntity.notFound().build();
     }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        log.warn("Rate limit exceeded: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Too many requests");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errors);
+    }
+
+    @ExceptionHandler(SavedSearchNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleSavedSearchNotFoundException(SavedSearchNotFoundException ex) {
+        log.warn("Saved search not found: {}", ex.getMessage());
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(InvalidSavedSearchException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidSavedSearchException(InvalidSavedSearchException ex) {
+        log.warn("Invalid saved search: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", ex.getMessage());
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(ListingStreamFullException.class)
+    public ResponseEntity<Map<String, String>> handleListingStreamFullException(ListingStreamFullException ex) {
+        log.warn("Listing stream full: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Too many stream subscribers, try again later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errors);
+    }
+
+    @ExceptionHandler(OutboxCursorExpiredException.class)
+    public ResponseEntity<Map<String, String>> handleOutboxCursorExpiredException(OutboxCursorExpiredException ex) {
+        log.info("Outbox cursor expired: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE).body(errors);
+    }
 }
@@ -0,0 +1,7 @@
+package com.pm.backend.exception;
+
+public class ListingStreamFullException extends RuntimeException {
+    public ListingStreamFullException(String message) {
+        super(message);
+    }
+}
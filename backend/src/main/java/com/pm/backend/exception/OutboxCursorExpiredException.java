@@ -0,0 +1,7 @@
+package com.pm.backend.exception;
+
+public class OutboxCursorExpiredException extends RuntimeException {
+    public OutboxCursorExpiredException(String message) {
+        super(message);
+    }
+}
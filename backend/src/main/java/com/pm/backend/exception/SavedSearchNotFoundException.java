@@ -0,0 +1,7 @@
+package com.pm.backend.exception;
+
+public class SavedSearchNotFoundException extends RuntimeException {
+    public SavedSearchNotFoundException(String message) {
+        super(message);
+    }
+}
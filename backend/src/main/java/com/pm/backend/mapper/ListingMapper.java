@@ -1,8 +1,15 @@
 package com.pm.backend.mapper;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pm.backend.dto.ListingBinaryDTO;
 import com.pm.backend.dto.ListingRequestDTO;
 import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.dto.ListingView;
 import com.pm.backend.model.Listing;
+import com.pm.backend.model.PhotoUrlTemplate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -49,7 +56,7 @@ public class ListingMapper {
         
         // Complex data (JSON strings)
         dto.setVariableData(listing.getVariableData());
-        dto.setCarouselPhotosComposable(listing.getCarouselPhotosComposable());
+        dto.setPhotoCount(listing.getPhotoCount());
         dto.setFactsAndFeatures(listing.getFactsAndFeatures());
         
         // Auditing fields
@@ -59,6 +66,73 @@ public class ListingMapper {
         return dto;
     }
 
+    public static ListingResponseDTO toDTO(Listing listing, ListingView view) {
+        ListingResponseDTO dto = toDTO(listing);
+
+        // Cards skip the detail-only attributes
+        if (dto != null && view == ListingView.CARD) {
+            dto.setFactsAndFeatures(null);
+        }
+        return dto;
+    }
+
+    public static ListingBinaryDTO toBinaryDTO(Listing listing, ListingView view) {
+        if (listing == null) {
+            return null;
+        }
+
+        ListingBinaryDTO dto = new ListingBinaryDTO();
+        dto.setZpid(listing.getZpid());
+
+        // Address information
+        dto.setAddress(listing.getAddress());
+        dto.setAddressStreet(listing.getAddressStreet());
+        dto.setAddressCity(listing.getAddressCity());
+        dto.setAddressState(listing.getAddressState());
+        dto.setAddressZipcode(listing.getAddressZipcode());
+
+        // Location coordinates as plain doubles
+        dto.setLatitude(listing.getLatitude().doubleValue());
+        dto.setLongitude(listing.getLongitude().doubleValue());
+
+        // Display information
+        dto.setImgSrc(listing.getImgSrc());
+        dto.setDetailUrl(listing.getDetailUrl());
+        dto.setStatusText(listing.getStatusText());
+
+        // Property details - numeric price instead of the "$1234/mo" string
+        dto.setPrice(listing.getPrice() != null ? listing.getPrice().doubleValue() : null);
+        dto.setBeds(listing.getBeds());
+        dto.setBaths(listing.getBaths());
+        dto.setArea(listing.getArea());
+        dto.setHasVideo(listing.getHasVideo());
+        dto.setZestimate(listing.getZestimate());
+        dto.setPhotoCount(listing.getPhotoCount());
+
+        // Timestamps as epoch milliseconds
+        dto.setAvailabilityDate(toEpochMillis(listing.getAvailabilityDate()));
+        dto.setCreatedAt(toEpochMillis(listing.getCreatedAt()));
+        dto.setUpdatedAt(toEpochMillis(listing.getUpdatedAt()));
+
+        // Typed attributes instead of the JSON blobs
+        dto.setVariableDataType(listing.getVariableDataType());
+        dto.setVariableDataText(listing.getVariableDataText());
+        if (view == ListingView.DETAIL) {
+            dto.setFullBathroomCount(listing.getFullBathroomCount());
+            dto.setHalfBathroomCount(listing.getHalfBathroomCount());
+            dto.setHasAirConditioning(listing.getHasAirConditioning());
+            dto.setHasFireplace(listing.getHasFireplace());
+            dto.setHasPool(listing.getHasPool());
+            dto.setHasSpa(listing.getHasSpa());
+        }
+
+        return dto;
+    }
+
+    private static Long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
+
     public static List<ListingResponseDTO> toDTOList(List<Listing> listings) {
         if (listings == null) {
             return List.of();
@@ -94,7 +168,7 @@ public class ListingMapper {
         dto.setZestimate(listing.getZestimate());
         dto.setAvailabilityDate(listing.getAvailabilityDate());
         dto.setVariableData(listing.getVariableData());
-        dto.setCarouselPhotosComposable(listing.getCarouselPhotosComposable());
+        dto.setPhotoCount(listing.getPhotoCount());
         dto.setFactsAndFeatures(listing.getFactsAndFeatures());
         dto.setCreatedAt(listing.getCreatedAt());
         dto.setUpdatedAt(listing.getUpdatedAt());
@@ -149,16 +223,74 @@ public class ListingMapper {
         if (listingRequestDTO.getVariableData() != null) {
             listing.setVariableData(listingRequestDTO.getVariableData().toString());
         }
-        if (listingRequestDTO.getCarouselPhotosComposable() != null) {
-            listing.setCarouselPhotosComposable(listingRequestDTO.getCarouselPhotosComposable().toString());
-        }
+        // Carousel photos - keep only the keys, the shared URL template is resolved by the service
+        listing.setPhotoKeys(extractPhotoKeys(listingRequestDTO.getCarouselPhotosComposable()));
         if (listingRequestDTO.getFactsAndFeatures() != null) {
             listing.setFactsAndFeatures(listingRequestDTO.getFactsAndFeatures().toString());
         }
+
+        // Typed columns for the commonly filtered attributes
+        applyExtractedAttributes(listing, listingRequestDTO);
         
         return listing;
     }
 
+    public static void applyExtractedAttributes(Listing listing, ListingRequestDTO listingRequestDTO) {
+        JsonNode variableData = listingRequestDTO.getVariableData();
+        listing.setVariableDataType(textOrNull(variableData, "type"));
+        listing.setVariableDataText(textOrNull(variableData, "text"));
+
+        JsonNode facts = listingRequestDTO.getFactsAndFeatures();
+        listing.setFullBathroomCount(intOrNull(facts, "fullBathroomCount"));
+        listing.setHalfBathroomCount(intOrNull(facts, "halfBathroomCount"));
+        listing.setHasAirConditioning(booleanOrNull(facts, "hasAirConditioning"));
+        listing.setHasFireplace(booleanOrNull(facts, "hasFireplace"));
+        listing.setHasPool(booleanOrNull(facts, "hasPool"));
+        listing.setHasSpa(booleanOrNull(facts, "hasSpa"));
+    }
+
+    private static String textOrNull(JsonNode node, String fieldName) {
+        JsonNode field = node != null ? node.get(fieldName) : null;
+        return field != null && field.isTextual() ? field.asText() : null;
+    }
+
+    private static Integer intOrNull(JsonNode node, String fieldName) {
+        JsonNode field = node != null ? node.get(fieldName) : null;
+        return field != null && field.isNumber() ? field.asInt() : null;
+    }
+
+    private static Boolean booleanOrNull(JsonNode node, String fieldName) {
+        JsonNode field = node != null ? node.get(fieldName) : null;
+        return field != null && field.isBoolean() ? field.asBoolean() : null;
+    }
+
+    public static String[] extractPhotoKeys(JsonNode carousel) {
+        if (carousel == null || !carousel.path("photoData").isArray()) {
+            return null;
+        }
+
+        // Static carousels carry full URLs instead of keys, so the URL itself becomes the key
+        boolean staticUrls = carousel.path("isStaticUrls").asBoolean(false);
+        List<String> keys = new ArrayList<>();
+        for (JsonNode photo : carousel.get("photoData")) {
+            String key = staticUrls ? photo.path("url").asText(null) : photo.path("photoKey").asText(null);
+            if (key != null && !key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return keys.isEmpty() ? null : keys.toArray(new String[0]);
+    }
+
+    public static String extractPhotoBaseUrl(JsonNode carousel) {
+        if (carousel == null) {
+            return null;
+        }
+        if (carousel.path("isStaticUrls").asBoolean(false)) {
+            return PhotoUrlTemplate.PHOTO_KEY_PLACEHOLDER;
+        }
+        return carousel.path("baseUrl").asText(null);
+    }
+
     public static List<Listing> toModelList(List<ListingRequestDTO> dtos) {
         if (dtos == null) {
             return List.of();
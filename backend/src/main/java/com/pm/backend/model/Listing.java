@@ -3,6 +3,8 @@ package com.pm.backend.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
@@ -14,6 +16,8 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "property_listings")
 @EntityListeners(AuditingEntityListener.class)
+// Detail lookups by zpid are served from the second-level cache (see SecondLevelCacheConfiguration)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "listing")
 public class Listing {
     @Id
     private String zpid;
@@ -66,6 +70,13 @@ public class Listing {
     @JdbcTypeCode(SqlTypes.JSON)
     private String variableData;
 
+    // Attributes extracted from variableData at write time
+    @Column(name = "variable_data_type", length = 50)
+    private String variableDataType;
+
+    @Column(name = "variable_data_text")
+    private String variableDataText;
+
     // Property details
     @Column(precision = 10, scale = 2)
     private BigDecimal price;
@@ -90,15 +101,39 @@ public class Listing {
     @Column(name = "availability_date")
     private LocalDateTime availabilityDate;
 
-    // Complex data stored as JSON
-    @Column(name = "carousel_photos", columnDefinition = "TEXT")
-    @JdbcTypeCode(SqlTypes.JSON)
-    private String carouselPhotosComposable;
+    // Carousel photos - keys only, the URL template is shared across listings
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "photo_template_id")
+    private PhotoUrlTemplate photoTemplate;
+
+    @Column(name = "photo_keys")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private String[] photoKeys;
 
+    // Complex data stored as JSON
     @Column(name = "facts_and_features", columnDefinition = "TEXT")
     @JdbcTypeCode(SqlTypes.JSON)
     private String factsAndFeatures;
 
+    // Attributes extracted from factsAndFeatures at write time
+    @Column(name = "full_bathroom_count")
+    private Integer fullBathroomCount;
+
+    @Column(name = "half_bathroom_count")
+    private Integer halfBathroomCount;
+
+    @Column(name = "has_air_conditioning")
+    private Boolean hasAirConditioning;
+
+    @Column(name = "has_fireplace")
+    private Boolean hasFireplace;
+
+    @Column(name = "has_pool")
+    private Boolean hasPool;
+
+    @Column(name = "has_spa")
+    private Boolean hasSpa;
+
     // Auditing fields
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -164,6 +199,12 @@ public class Listing {
     public String getVariableData() { return variableData; }
     public void setVariableData(String variableData) { this.variableData = variableData; }
 
+    public String getVariableDataType() { return variableDataType; }
+    public void setVariableDataType(String variableDataType) { this.variableDataType = variableDataType; }
+
+    public String getVariableDataText() { return variableDataText; }
+    public void setVariableDataText(String variableDataText) { this.variableDataText = variableDataText; }
+
     public BigDecimal getPrice() { return price; }
     public void setPrice(BigDecimal price) { this.price = price; }
 
@@ -185,12 +226,37 @@ public class Listing {
     public LocalDateTime getAvailabilityDate() { return availabilityDate; }
     public void setAvailabilityDate(LocalDateTime availabilityDate) { this.availabilityDate = availabilityDate; }
 
-    public String getCarouselPhotosComposable() { return carouselPhotosComposable; }
-    public void setCarouselPhotosComposable(String carouselPhotosComposable) { this.carouselPhotosComposable = carouselPhotosComposable; }
+    public PhotoUrlTemplate getPhotoTemplate() { return photoTemplate; }
+    public void setPhotoTemplate(PhotoUrlTemplate photoTemplate) { this.photoTemplate = photoTemplate; }
+
+    public String[] getPhotoKeys() { return photoKeys; }
+    public void setPhotoKeys(String[] photoKeys) { this.photoKeys = photoKeys; }
+
+    public int getPhotoCount() {
+        return photoKeys != null ? photoKeys.length : 0;
+    }
 
     public String getFactsAndFeatures() { return factsAndFeatures; }
     public void setFactsAndFeatures(String factsAndFeatures) { this.factsAndFeatures = factsAndFeatures; }
 
+    public Integer getFullBathroomCount() { return fullBathroomCount; }
+    public void setFullBathroomCount(Integer fullBathroomCount) { this.fullBathroomCount = fullBathroomCount; }
+
+    public Integer getHalfBathroomCount() { return halfBathroomCount; }
+    public void setHalfBathroomCount(Integer halfBathroomCount) { this.halfBathroomCount = halfBathroomCount; }
+
+    public Boolean getHasAirConditioning() { return hasAirConditioning; }
+    public void setHasAirConditioning(Boolean hasAirConditioning) { this.hasAirConditioning = hasAirConditioning; }
+
+    public Boolean getHasFireplace() { return hasFireplace; }
+    public void setHasFireplace(Boolean hasFireplace) { this.hasFireplace = hasFireplace; }
+
+    public Boolean getHasPool() { return hasPool; }
+    public void setHasPool(Boolean hasPool) { this.hasPool = hasPool; }
+
+    public Boolean getHasSpa() { return hasSpa; }
+    public void setHasSpa(Boolean hasSpa) { this.hasSpa = hasSpa; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
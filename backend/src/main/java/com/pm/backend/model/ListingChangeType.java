@@ -0,0 +1,5 @@
+package com.pm.backend.model;
+
+public enum ListingChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,56 @@
+package com.pm.backend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+// A listing change, written in the same transaction as the change itself and relayed to downstream
+// consumers in id order
+@Entity
+@Table(name = "listing_outbox")
+public class ListingOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String zpid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ListingChangeType type;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // The listing's detail JSON after the change; null for deletes
+    @Column(columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String payload;
+
+    public ListingOutboxEvent() {}
+
+    public ListingOutboxEvent(String zpid, ListingChangeType type, LocalDateTime occurredAt, String payload) {
+        this.zpid = zpid;
+        this.type = type;
+        this.occurredAt = occurredAt;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getZpid() { return zpid; }
+    public void setZpid(String zpid) { this.zpid = zpid; }
+
+    public ListingChangeType getType() { return type; }
+    public void setType(ListingChangeType type) { this.type = type; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+}
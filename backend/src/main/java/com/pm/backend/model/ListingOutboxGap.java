@@ -0,0 +1,44 @@
+package com.pm.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A run of listing outbox ids that will never be filled because the transaction holding them rolled
+// back, so readers can pass over it instead of waiting out the gap grace period
+@Entity
+@Table(name = "listing_outbox_gaps")
+public class ListingOutboxGap {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "first_id", nullable = false)
+    private long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public ListingOutboxGap() {}
+
+    public ListingOutboxGap(long firstId, long lastId, LocalDateTime recordedAt) {
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public long getFirstId() { return firstId; }
+    public void setFirstId(long firstId) { this.firstId = firstId; }
+
+    public long getLastId() { return lastId; }
+    public void setLastId(long lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+}
@@ -0,0 +1,49 @@
+package com.pm.backend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+@Entity
+@Table(name = "photo_url_templates")
+// Templates are only ever inserted, so the entity is immutable and its cache entries never go stale
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "photo-url-template")
+public class PhotoUrlTemplate {
+    // Placeholder substituted with each photo key, as used in Zillow's carousel baseUrl
+    public static final String PHOTO_KEY_PLACEHOLDER = "{photoKey}";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_url", unique = true, nullable = false, length = 500)
+    private String baseUrl;
+
+    public PhotoUrlTemplate() {}
+
+    public PhotoUrlTemplate(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Long getId() { return id; }
+
+    public String getBaseUrl() { return baseUrl; }
+
+    public String expand(String photoKey) {
+        return expand(baseUrl, photoKey);
+    }
+
+    public static String expand(String baseUrl, String photoKey) {
+        return baseUrl.replace(PHOTO_KEY_PLACEHOLDER, photoKey);
+    }
+
+    @Override
+    public String toString() {
+        return "PhotoUrlTemplate{" +
+                "id=" + id +
+                ", baseUrl='" + baseUrl + '\'' +
+                '}';
+    }
+}
@@ -7,7 +7,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "saved_listings")
+@Table(name = "saved_listings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_saved_listings_user_listing", columnNames = {"user_id", "listing_zpid"})
+}, indexes = {
+        // Covers the saved-zpids query, so it reads a user's list in saved order from the index alone
+        @Index(name = "idx_saved_listings_user_saved_at", columnList = "user_id, saved_at DESC, id DESC, listing_zpid")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class SavedListing {
     @Id
@@ -0,0 +1,40 @@
+package com.pm.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A listing that matched a saved search and is waiting for the next digest email
+@Entity
+@Table(name = "saved_search_alerts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_saved_search_alerts_search_listing", columnNames = {"saved_search_id", "listing_zpid"})
+})
+public class SavedSearchAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "saved_search_id", nullable = false)
+    private SavedSearch savedSearch;
+
+    @Column(name = "listing_zpid", nullable = false)
+    private String listingZpid;
+
+    @Column(name = "matched_at", nullable = false)
+    private LocalDateTime matchedAt;
+
+    public SavedSearchAlert() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public SavedSearch getSavedSearch() { return savedSearch; }
+    public void setSavedSearch(SavedSearch savedSearch) { this.savedSearch = savedSearch; }
+
+    public String getListingZpid() { return listingZpid; }
+    public void setListingZpid(String listingZpid) { this.listingZpid = listingZpid; }
+
+    public LocalDateTime getMatchedAt() { return matchedAt; }
+    public void setMatchedAt(LocalDateTime matchedAt) { this.matchedAt = matchedAt; }
+}
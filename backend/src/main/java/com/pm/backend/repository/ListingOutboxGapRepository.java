@@ -0,0 +1,20 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.model.ListingOutboxGap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ListingOutboxGapRepository extends JpaRepository<ListingOutboxGap, Long> {
+    @Query("select g from ListingOutboxGap g where g.lastId >= :fromId and g.firstId <= :toId order by g.firstId")
+    List<ListingOutboxGap> findOverlapping(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query("delete from ListingOutboxGap g where g.lastId < :id")
+    int deleteEndingBefore(@Param("id") long id);
+}
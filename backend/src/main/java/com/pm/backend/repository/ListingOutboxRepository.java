@@ -0,0 +1,27 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.model.ListingOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ListingOutboxRepository extends JpaRepository<ListingOutboxEvent, Long> {
+    List<ListingOutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from ListingOutboxEvent e")
+    long findLastId();
+
+    @Query("select min(e.id) from ListingOutboxEvent e")
+    Long findFirstId();
+
+    @Modifying
+    @Query("delete from ListingOutboxEvent e where e.id <= :maxId and e.occurredAt < :before")
+    int deleteConsumedBefore(@Param("maxId") long maxId, @Param("before") LocalDateTime before);
+}
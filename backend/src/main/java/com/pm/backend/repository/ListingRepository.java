@@ -1,12 +1,68 @@
 package com.pm.backend.repository;
 
 import com.pm.backend.model.Listing;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface ListingRepository extends JpaRepository<Listing, String>, JpaSpecificationExecutor<Listing> {
     boolean existsByZpid(String zpid);
     boolean existsByAddress(String address);
+
+    @Query("select l.zpid from Listing l where l.zpid in :zpids")
+    List<String> findExistingZpids(@Param("zpids") Collection<String> zpids);
+
+    // Any row at all, via a limit-1 exists query instead of a count
+    boolean existsByZpidIsNotNull();
+
+    // Loads only the photo keys and their template, skipping the rest of the row
+    @Query("select l.zpid as zpid, l.photoKeys as photoKeys, t.baseUrl as baseUrl " +
+           "from Listing l left join l.photoTemplate t where l.zpid = :zpid")
+    Optional<ListingPhotosView> findPhotosByZpid(@Param("zpid") String zpid);
+
+    // Only the columns ListingSearchIndex filters and sorts on, streamed for rebuilding it
+    @Query("select l.zpid as zpid, l.price as price, l.area as area, l.beds as beds, l.baths as baths, " +
+           "l.addressCity as addressCity, l.addressState as addressState, l.addressZipcode as addressZipcode, " +
+           "l.variableDataType as variableDataType, l.availabilityDate as availabilityDate, " +
+           "l.hasAirConditioning as hasAirConditioning, l.hasFireplace as hasFireplace, l.hasPool as hasPool, " +
+           "l.hasSpa as hasSpa, l.createdAt as createdAt, l.updatedAt as updatedAt from Listing l")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    Stream<ListingSearchColumnsView> streamSearchColumns();
+
+    interface ListingSearchColumnsView {
+        String getZpid();
+        BigDecimal getPrice();
+        Integer getArea();
+        Integer getBeds();
+        Integer getBaths();
+        String getAddressCity();
+        String getAddressState();
+        String getAddressZipcode();
+        String getVariableDataType();
+        LocalDateTime getAvailabilityDate();
+        Boolean getHasAirConditioning();
+        Boolean getHasFireplace();
+        Boolean getHasPool();
+        Boolean getHasSpa();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface ListingPhotosView {
+        String getZpid();
+        String[] getPhotoKeys();
+        String getBaseUrl();
+    }
 }
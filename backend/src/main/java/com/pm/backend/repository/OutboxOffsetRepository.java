@@ -0,0 +1,32 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.model.OutboxOffset;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+    @Modifying
+    @Query("insert into OutboxOffset (consumer, lastEventId, updatedAt) values (:consumer, 0, :now) on conflict do nothing")
+    int insertIfAbsent(@Param("consumer") String consumer, @Param("now") LocalDateTime now);
+
+    // Only one instance relays to a sink at a time; the others skip it rather than wait
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxOffset o where o.consumer = :consumer")
+    Optional<OutboxOffset> lockByConsumer(@Param("consumer") String consumer);
+
+    @Query("select min(o.lastEventId) from OutboxOffset o where o.consumer in :consumers")
+    Long findMinLastEventId(@Param("consumers") Collection<String> consumers);
+}
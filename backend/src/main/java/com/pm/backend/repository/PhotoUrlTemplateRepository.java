@@ -0,0 +1,12 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.model.PhotoUrlTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PhotoUrlTemplateRepository extends JpaRepository<PhotoUrlTemplate, Long> {
+    Optional<PhotoUrlTemplate> findByBaseUrl(String baseUrl);
+}
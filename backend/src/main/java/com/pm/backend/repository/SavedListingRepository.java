@@ -2,13 +2,31 @@ package com.pm.backend.repository;
 
 import com.pm.backend.model.SavedListing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SavedListingRepository extends JpaRepository<SavedListing, Long> {
     List<SavedListing> findByUserId(Long userId);
     boolean existsByUserIdAndListingZpid(Long userId, String listingZpid);
-    void deleteByUserIdAndListingZpid(Long userId, String listingZpid);
+
+    // Most recently saved first
+    @Query("select s.listingZpid from SavedListing s where s.user.id = :userId order by s.savedAt desc, s.id desc")
+    List<String> findListingZpidsByUserId(@Param("userId") Long userId);
+
+    // Single-statement idempotent insert; returns 0 if the listing was already saved
+    @Modifying
+    @Query("insert into SavedListing (user.id, listingZpid, savedAt) values (:userId, :listingZpid, :savedAt) " +
+           "on conflict do nothing")
+    int insertIfAbsent(@Param("userId") Long userId, @Param("listingZpid") String listingZpid,
+                       @Param("savedAt") LocalDateTime savedAt);
+
+    @Modifying
+    @Query("delete from SavedListing s where s.user.id = :userId and s.listingZpid = :listingZpid")
+    int deleteByUserIdAndListingZpid(@Param("userId") Long userId, @Param("listingZpid") String listingZpid);
 }
@@ -0,0 +1,36 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.model.SavedSearchAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SavedSearchAlertRepository extends JpaRepository<SavedSearchAlert, Long> {
+    // A listing changing again before the digest goes out keeps its single pending alert
+    @Modifying
+    @Query("insert into SavedSearchAlert (savedSearch.id, listingZpid, matchedAt) values (:savedSearchId, :listingZpid, :matchedAt) " +
+           "on conflict do nothing")
+    int insertIfAbsent(@Param("savedSearchId") Long savedSearchId, @Param("listingZpid") String listingZpid,
+                       @Param("matchedAt") LocalDateTime matchedAt);
+
+    // Grouped by user so each digest batch covers whole users
+    @Query("select a from SavedSearchAlert a join fetch a.savedSearch s join fetch s.user " +
+           "order by s.user.id, s.id, a.matchedAt")
+    List<SavedSearchAlert> findPending(Pageable pageable);
+
+    @Modifying
+    @Query("delete from SavedSearchAlert a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from SavedSearchAlert a where a.savedSearch.id = :savedSearchId")
+    int deleteBySavedSearchId(@Param("savedSearchId") Long savedSearchId);
+}
@@ -0,0 +1,29 @@
+package com.pm.backend.repository;
+
+import com.pm.backend.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    long countByUserId(Long userId);
+
+    @Query("select s.id from SavedSearch s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Everything the in-memory index needs, without loading users
+    @Query("select s.id as id, s.criteria as criteria from SavedSearch s")
+    List<SavedSearchCriteriaView> findAllCriteria();
+
+    interface SavedSearchCriteriaView {
+        Long getId();
+        String getCriteria();
+    }
+}
@@ -1,9 +1,15 @@
 package com.pm.backend.repository;
 
+import com.pm.backend.dto.UserResponseDTO;
 import com.pm.backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByVerificationCode(String verificationCode);
+
+    // Keyset page over the primary key, projected straight into the response shape
+    @Query("select new com.pm.backend.dto.UserResponseDTO(u.id, u.username, u.email, u.enabled, u.createdAt, u.updatedAt) " +
+           "from User u " +
+           "where u.id > :afterId " +
+           "and (:enabled is null or u.enabled = :enabled) " +
+           "and (:createdFrom is null or u.createdAt >= :createdFrom) " +
+           "and (:createdTo is null or u.createdAt < :createdTo) " +
+           "order by u.id asc")
+    List<UserResponseDTO> findUserPage(@Param("afterId") Long afterId,
+                                       @Param("enabled") Boolean enabled,
+                                       @Param("createdFrom") LocalDateTime createdFrom,
+                                       @Param("createdTo") LocalDateTime createdTo,
+                                       Limit limit);
 }
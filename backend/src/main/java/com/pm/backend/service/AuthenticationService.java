@@ -25,12 +25,15 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final CacheInvalidationService cacheInvalidationService;
 
-    public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, EmailService emailService) {
+    public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, EmailService emailService,
+                                 CacheInvalidationService cacheInvalidationService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.emailService = emailService;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     public User signup(RegisterUserDTO userDTO) {
@@ -82,6 +85,7 @@ public class AuthenticationService {
                 user.setVerificationCode(null);
                 user.setVerificationExpiration(null);
                 User savedUser = userRepository.save(user);
+                cacheInvalidationService.publish(CacheInvalidationService.EntityType.USER, savedUser.getId());
                 logger.info("User verified and saved with ID: {}, enabled: {}", savedUser.getId(), savedUser.isEnabled());
             } else {
                 throw new RuntimeException("Invalid verification code. Expected: " + user.getVerificationCode() + 
@@ -111,6 +115,7 @@ public class AuthenticationService {
             user.setVerificationExpiration(LocalDateTime.now().plusHours(1));
             sendVerificationEmail(user);
             userRepository.save(user);
+            cacheInvalidationService.publish(CacheInvalidationService.EntityType.USER, user.getId());
         } else {
             throw new RuntimeException("User not found. Please try again.");
         }
@@ -0,0 +1,79 @@
+package com.pm.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Keeps in-process caches coherent across backend instances. Services report the entities they change;
+// once the change commits, the message goes out on the cluster bus (PostgresInvalidationBus, when
+// enabled) and every other instance evicts its local copies through the registered handlers.
+// The instance that made the change keeps its own caches current itself.
+@Service
+public class CacheInvalidationService {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    public enum EntityType {
+        LISTING, USER, SAVED_SEARCH,
+        // Keyed by user id: the set of listings that user has saved
+        SAVED_LISTINGS
+    }
+
+    // Implemented by components holding entity state in memory
+    public interface Handler {
+        void invalidate(EntityType type, String id);
+
+        // Called when messages may have been missed, so nothing cached can be trusted
+        void invalidateAll();
+    }
+
+    private final ObjectProvider<Handler> handlers;
+    private final ObjectProvider<PostgresInvalidationBus> bus;
+
+    public CacheInvalidationService(ObjectProvider<Handler> handlers, ObjectProvider<PostgresInvalidationBus> bus) {
+        this.handlers = handlers;
+        this.bus = bus;
+    }
+
+    public void publish(EntityType type, Object id) {
+        PostgresInvalidationBus target = bus.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        String key = String.valueOf(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    target.send(type, key);
+                }
+            });
+        } else {
+            target.send(type, key);
+        }
+    }
+
+    // Delivery from other instances
+    public void invalidate(EntityType type, String id) {
+        handlers.orderedStream().forEach(handler -> {
+            try {
+                handler.invalidate(type, id);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to invalidate {} {} in {}", type, id, handler.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        logger.info("Flushing all local caches");
+        handlers.orderedStream().forEach(handler -> {
+            try {
+                handler.invalidateAll();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to flush {}", handler.getClass().getSimpleName(), e);
+            }
+        });
+    }
+}
@@ -13,6 +13,14 @@ public class EmailService {
     private JavaMailSender emailSender;
 
     public void sendVerificationEmail(String to, String subject, String text) throws MessagingException {
+        sendHtmlEmail(to, subject, text);
+    }
+
+    public void sendSavedSearchDigest(String to, String subject, String text) throws MessagingException {
+        sendHtmlEmail(to, subject, text);
+    }
+
+    private void sendHtmlEmail(String to, String subject, String text) throws MessagingException {
         MimeMessage message = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
@@ -0,0 +1,125 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingView;
+import com.pm.backend.mapper.ListingMapper;
+import com.pm.backend.model.Listing;
+import com.pm.backend.util.PrecompressedJson;
+import com.pm.backend.util.RawJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+@Component
+public class ListingJsonCache implements CacheInvalidationService.Handler {
+    private static final Logger logger = LoggerFactory.getLogger(ListingJsonCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final int gzipLevel;
+
+    // Encoded JSON per (zpid, view); an entry is only reused while the listing's updatedAt is unchanged.
+    // Detail bodies are also kept gzip-compressed since they are served one per response.
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public ListingJsonCache(ObjectMapper objectMapper,
+                            @Value("${app.listing-json-cache.max-entries:20000}") int maxEntries,
+                            @Value("${app.listing-json-cache.gzip-level:6}") int gzipLevel) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.gzipLevel = gzipLevel;
+    }
+
+    public EncodedListing encode(Listing listing, ListingView view) {
+        Key key = new Key(listing.getZpid(), view);
+        Entry entry = entries.get(key);
+
+        if (entry == null || !Objects.equals(entry.updatedAt(), listing.getUpdatedAt())) {
+            RawJson body = encodeBody(listing, view);
+            entry = new Entry(listing.getUpdatedAt(), body, precompress(body, view));
+            if (entries.size() >= maxEntries) {
+                evictSome();
+            }
+            entries.put(key, entry);
+        }
+
+        return new EncodedListing(listing, view, entry.body(), entry.gzip());
+    }
+
+    // For reads covering much of the catalog, which would otherwise evict the entries serving regular
+    // traffic: a current entry is reused, but a miss is encoded for this response only
+    public EncodedListing encodeUncached(Listing listing, ListingView view) {
+        Entry entry = entries.get(new Key(listing.getZpid(), view));
+        if (entry != null && Objects.equals(entry.updatedAt(), listing.getUpdatedAt())) {
+            return new EncodedListing(listing, view, entry.body(), entry.gzip());
+        }
+        RawJson body = encodeBody(listing, view);
+        return new EncodedListing(listing, view, body, precompress(body, view));
+    }
+
+    public void evict(String zpid) {
+        for (ListingView view : ListingView.values()) {
+            entries.remove(new Key(zpid, view));
+        }
+    }
+
+    // Entries are already checked against updatedAt on use; eviction drops deleted listings and frees memory
+    @Override
+    public void invalidate(CacheInvalidationService.EntityType type, String id) {
+        if (type == CacheInvalidationService.EntityType.LISTING) {
+            evict(id);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private RawJson encodeBody(Listing listing, ListingView view) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ListingMapper.toDTO(listing, view));
+            // Drop the closing brace so the saved flag can be appended per request
+            return new RawJson(Arrays.copyOf(json, json.length - 1));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode listing " + listing.getZpid(), e);
+        }
+    }
+
+    private PrecompressedJson precompress(RawJson body, ListingView view) {
+        if (view != ListingView.DETAIL || gzipLevel <= 0) {
+            return null;
+        }
+        return PrecompressedJson.compress(body, Math.min(gzipLevel, Deflater.BEST_COMPRESSION));
+    }
+
+    // Arbitrary eviction of a tenth of the entries; anything evicted is simply re-encoded on next use
+    private void evictSome() {
+        int toEvict = Math.max(1, maxEntries / 10);
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (toEvict-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        logger.debug("Listing JSON cache full, evicted down to {} entries", entries.size());
+    }
+
+    private record Key(String zpid, ListingView view) {}
+
+    private record Entry(LocalDateTime updatedAt, RawJson body, PrecompressedJson gzip) {}
+}
@@ -0,0 +1,206 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.ListingChangeDTO;
+import com.pm.backend.dto.ListingChangePageResponseDTO;
+import com.pm.backend.dto.ListingView;
+import com.pm.backend.exception.OutboxCursorExpiredException;
+import com.pm.backend.mapper.ListingMapper;
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.ListingChangeType;
+import com.pm.backend.model.ListingOutboxEvent;
+import com.pm.backend.model.ListingOutboxGap;
+import com.pm.backend.repository.ListingOutboxGapRepository;
+import com.pm.backend.repository.ListingOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Transactional outbox of listing changes. Writes append a row in the same transaction as the change,
+// so a change is recorded exactly when it commits, and consumers read the rows back in id order: the
+// relay on behalf of the configured sinks, and clients syncing through GET /listings/changes.
+//
+// Ids are handed out at insert but become visible at commit, so a lower id can appear after a higher
+// one. A reader stops at a gap in the ids until it knows the gap won't be filled: a transaction that
+// rolls back records its ids as a gap, which readers pass straight over. Ids lost without a record (the
+// process died mid-transaction, or recording failed) are waited out until the row after them is older
+// than the grace period. A transaction holding its outbox row for longer than that can be skipped.
+@Service
+public class ListingOutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(ListingOutboxService.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ListingOutboxRepository listingOutboxRepository;
+    private final ListingOutboxGapRepository listingOutboxGapRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate ownTransaction;
+    private final Duration gapGrace;
+
+    public ListingOutboxService(ListingOutboxRepository listingOutboxRepository,
+                                ListingOutboxGapRepository listingOutboxGapRepository, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.outbox.gap-grace:1m}") Duration gapGrace) {
+        this.listingOutboxRepository = listingOutboxRepository;
+        this.listingOutboxGapRepository = listingOutboxGapRepository;
+        this.objectMapper = objectMapper;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.gapGrace = gapGrace;
+    }
+
+    // Only meaningful as part of the write it records
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ListingChangeType type, Listing listing) {
+        ListingOutboxEvent event = listingOutboxRepository.save(toEvent(type, listing, LocalDateTime.now()));
+        rollbackGaps().ids.add(event.getId());
+    }
+
+    // Changes after the given id, oldest first, up to the first gap that may still be filled
+    @Transactional(readOnly = true)
+    public List<ListingChangeDTO> readAfter(long after, int limit) {
+        List<ListingOutboxEvent> events = listingOutboxRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+        LocalDateTime settled = LocalDateTime.now().minus(gapGrace);
+        List<ListingChangeDTO> changes = new ArrayList<>(events.size());
+        long expected = after + 1;
+        for (ListingOutboxEvent event : events) {
+            if (event.getId() != expected && event.getOccurredAt().isAfter(settled)
+                    && !isRolledBack(expected, event.getId() - 1)) {
+                break;
+            }
+            changes.add(toDTO(event));
+            expected = event.getId() + 1;
+        }
+        return changes;
+    }
+
+    // Incremental sync: start from 0 (or the id of the last change seen) and pass nextCursor back.
+    // Changes older than the retention period are purged; a cursor from before then has to resync.
+    @Transactional(readOnly = true)
+    public ListingChangePageResponseDTO getChanges(long after, int limit) {
+        if (after < 0) after = 0;
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) limit = 100;
+
+        List<ListingChangeDTO> changes = readAfter(after, limit);
+        if (after > 0 && !changes.isEmpty() && changes.get(0).getId() != after + 1) {
+            Long firstId = listingOutboxRepository.findFirstId();
+            if (firstId != null && firstId > after + 1) {
+                throw new OutboxCursorExpiredException("Changes after " + after + " are no longer retained, reload all listings and sync from "
+                        + (firstId - 1));
+            }
+        }
+
+        long nextCursor = changes.isEmpty() ? after : changes.get(changes.size() - 1).getId();
+        return new ListingChangePageResponseDTO(changes, nextCursor, changes.size() == limit);
+    }
+
+    @Transactional(readOnly = true)
+    public long getLastId() {
+        return listingOutboxRepository.findLastId();
+    }
+
+    // Drops changes every given consumer is past and that are older than the cutoff. The newest change
+    // is always kept, so an expired cursor can still be told apart from one that is up to date.
+    @Transactional
+    public int purge(long consumedUpTo, LocalDateTime before) {
+        long maxId = Math.min(consumedUpTo, listingOutboxRepository.findLastId() - 1);
+        int purged = maxId > 0 ? listingOutboxRepository.deleteConsumedBefore(maxId, before) : 0;
+        if (purged > 0) {
+            Long firstId = listingOutboxRepository.findFirstId();
+            if (firstId != null) {
+                listingOutboxGapRepository.deleteEndingBefore(firstId);
+            }
+        }
+        return purged;
+    }
+
+    // Whether recorded rollbacks cover every id from first to last
+    private boolean isRolledBack(long first, long last) {
+        long next = first;
+        for (ListingOutboxGap gap : listingOutboxGapRepository.findOverlapping(first, last)) {
+            if (gap.getFirstId() > next) {
+                return false;
+            }
+            next = Math.max(next, gap.getLastId() + 1);
+        }
+        return next > last;
+    }
+
+    // The current transaction's outbox ids, recorded as gaps if it doesn't commit. Looked up among the
+    // current synchronizations, so a suspended outer transaction keeps its own.
+    private RollbackGaps rollbackGaps() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof RollbackGaps gaps) {
+                return gaps;
+            }
+        }
+        RollbackGaps gaps = new RollbackGaps();
+        TransactionSynchronizationManager.registerSynchronization(gaps);
+        return gaps;
+    }
+
+    private final class RollbackGaps implements TransactionSynchronization {
+        private final List<Long> ids = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED && !ids.isEmpty()) {
+                recordGaps(ids);
+            }
+        }
+    }
+
+    // Stored as runs of consecutive ids, so a rolled-back batch takes a row or two
+    private void recordGaps(List<Long> ids) {
+        List<Long> sorted = ids.stream().sorted().toList();
+        LocalDateTime now = LocalDateTime.now();
+        List<ListingOutboxGap> gaps = new ArrayList<>();
+        long first = sorted.get(0);
+        long last = first;
+        for (long id : sorted.subList(1, sorted.size())) {
+            if (id != last + 1) {
+                gaps.add(new ListingOutboxGap(first, last, now));
+                first = id;
+            }
+            last = id;
+        }
+        gaps.add(new ListingOutboxGap(first, last, now));
+
+        try {
+            ownTransaction.executeWithoutResult(status -> listingOutboxGapRepository.saveAll(gaps));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record rolled-back listing outbox ids {}-{}, readers will wait out the gap grace: {}",
+                    sorted.get(0), last, e.getMessage());
+        }
+    }
+
+    private ListingOutboxEvent toEvent(ListingChangeType type, Listing listing, LocalDateTime now) {
+        String payload = null;
+        if (type != ListingChangeType.DELETED) {
+            try {
+                payload = objectMapper.writeValueAsString(ListingMapper.toDTO(listing, ListingView.DETAIL));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to encode listing " + listing.getZpid() + " for the outbox", e);
+            }
+        }
+        return new ListingOutboxEvent(listing.getZpid(), type, now, payload);
+    }
+
+    private static ListingChangeDTO toDTO(ListingOutboxEvent event) {
+        return new ListingChangeDTO(event.getId(), event.getZpid(), event.getType(), event.getOccurredAt(), event.getPayload());
+    }
+}
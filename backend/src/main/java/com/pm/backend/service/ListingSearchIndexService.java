@@ -0,0 +1,123 @@
+package com.pm.backend.service;
+
+import com.pm.backend.repository.ListingRepository;
+import com.pm.backend.util.ListingSearchIndex;
+import com.pm.backend.util.PredicateKernels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Holds the ListingSearchIndex that ListingService answers paged searches from. Every committed
+// listing write, on this instance or another, makes it stale, and searches go to the database until
+// the next refresh has rebuilt it. A rebuild reads the primary and is thrown away if a write committed
+// while it ran, so a search never sees an index older than the database it would otherwise query.
+// Searches scan the index's segments on a pool of their own, so they don't compete with the common pool,
+// and filter numeric columns with SIMD kernels unless app.listing-search-index.vectorized is off or the
+// JVM wasn't started with --add-modules jdk.incubator.vector.
+@Service
+@ConditionalOnProperty(name = "app.listing-search-index.enabled", havingValue = "true", matchIfMissing = true)
+public class ListingSearchIndexService implements CacheInvalidationService.Handler {
+    private static final Logger logger = LoggerFactory.getLogger(ListingSearchIndexService.class);
+
+    private record Snapshot(ListingSearchIndex index, long generation) {}
+
+    private final ListingRepository listingRepository;
+    private final TransactionTemplate transaction;
+    private final ForkJoinPool workers;
+    private final PredicateKernels kernels;
+
+    // Bumped by every write; the snapshot is current while it was built at the latest generation
+    private final AtomicLong generation = new AtomicLong(1);
+    private volatile Snapshot snapshot;
+
+    public ListingSearchIndexService(ListingRepository listingRepository, PlatformTransactionManager transactionManager,
+                                     @Value("${app.listing-search-index.parallelism:0}") int parallelism,
+                                     @Value("${app.listing-search-index.vectorized:true}") boolean vectorized) {
+        this.listingRepository = listingRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.workers = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.kernels = PredicateKernels.create(vectorized);
+        logger.info("Listing search index filters with {}", kernels.getClass().getSimpleName());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // The index, or null while it is stale
+    public ListingSearchIndex current() {
+        Snapshot current = snapshot;
+        return current != null && current.generation() == generation.get() ? current.index() : null;
+    }
+
+    // Called from listing write transactions; takes effect once the write commits
+    public void markStale() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void invalidate(CacheInvalidationService.EntityType type, String id) {
+        if (type == CacheInvalidationService.EntityType.LISTING) {
+            generation.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${app.listing-search-index.refresh-interval:5s}")
+    public void refresh() {
+        long target = generation.get();
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == target) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        ListingSearchIndex index = transaction.execute(status -> {
+            try (Stream<ListingRepository.ListingSearchColumnsView> columns = listingRepository.streamSearchColumns()) {
+                List<ListingSearchIndex.Row> rows = new ArrayList<>();
+                columns.forEach(listing -> rows.add(new ListingSearchIndex.Row(listing.getZpid(), listing.getPrice(),
+                        listing.getArea(), listing.getBeds(), listing.getBaths(), listing.getAddressCity(),
+                        listing.getAddressState(), listing.getAddressZipcode(), listing.getVariableDataType(),
+                        listing.getAvailabilityDate(), listing.getHasAirConditioning(), listing.getHasFireplace(),
+                        listing.getHasPool(), listing.getHasSpa(), listing.getCreatedAt(), listing.getUpdatedAt())));
+                return new ListingSearchIndex(rows, workers, kernels);
+            }
+        });
+
+        if (generation.get() != target) {
+            logger.debug("Listings changed while the search index was rebuilt, retrying on the next refresh");
+            return;
+        }
+        snapshot = new Snapshot(index, target);
+        logger.info("Indexed {} listings for search in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -1,45 +1,113 @@
 package com.pm.backend.service;
 
+import com.pm.backend.config.ReadYourWritesWindow;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingBatchResponseDTO;
 import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.dto.ListingPhotosResponseDTO;
 import com.pm.backend.dto.ListingRequestDTO;
 import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.dto.ListingView;
 import com.pm.backend.exception.AddressAlreadyExistsException;
 import com.pm.backend.exception.ListingNotFoundException;
 import com.pm.backend.exception.ZpidAlreadyExistsException;
 import com.pm.backend.mapper.ListingMapper;
 import com.pm.backend.model.Listing;
+import com.pm.backend.model.ListingChangeType;
+import com.pm.backend.model.PhotoUrlTemplate;
 import com.pm.backend.repository.ListingRepository;
 import com.pm.backend.specification.ListingSpecification;
+import com.pm.backend.util.ListingSearchIndex;
+import com.pm.backend.util.SingleFlight;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 @Service
 public class ListingService {
     private static final Logger logger = LoggerFactory.getLogger(ListingService.class);
     private static final int BATCH_SIZE = 100; // Process in batches for memory efficiency
     
+    private static final int MAX_PHOTOS_PER_PAGE = 50;
+    
     private final ListingRepository listingRepository;
+    private final PhotoTemplateService photoTemplateService;
+    private final ListingJsonCache listingJsonCache;
+    private final SavedSearchService savedSearchService;
+    private final ListingStreamService listingStreamService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final ListingOutboxService listingOutboxService;
+    private final ObjectProvider<ReadYourWritesWindow> readYourWritesWindow;
+    private final ObjectProvider<ListingSearchIndexService> listingSearchIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Identical searches running at the same time share one query; null when disabled
+    private final SingleFlight<SearchKey, Object> searchCoalescing;
 
-    public ListingService(ListingRepository listingRepository) {
+    public ListingService(ListingRepository listingRepository, PhotoTemplateService photoTemplateService,
+                          ListingJsonCache listingJsonCache, SavedSearchService savedSearchService,
+                          ListingStreamService listingStreamService, CacheInvalidationService cacheInvalidationService,
+                          ListingOutboxService listingOutboxService, ObjectProvider<ReadYourWritesWindow> readYourWritesWindow,
+                          ObjectProvider<ListingSearchIndexService> listingSearchIndex,
+                          EntityManager entityManager, PlatformTransactionManager transactionManager,
+                          @Value("${app.search-coalescing.enabled:true}") boolean searchCoalescingEnabled,
+                          @Value("${app.search-coalescing.timeout:5s}") Duration searchCoalescingTimeout) {
         this.listingRepository = listingRepository;
+        this.photoTemplateService = photoTemplateService;
+        this.listingJsonCache = listingJsonCache;
+        this.savedSearchService = savedSearchService;
+        this.listingStreamService = listingStreamService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.listingOutboxService = listingOutboxService;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.listingSearchIndex = listingSearchIndex;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.searchCoalescing = searchCoalescingEnabled ? new SingleFlight<>(searchCoalescingTimeout) : null;
     }
 
+    @Transactional(readOnly = true)
     public List<ListingResponseDTO> getListings() {
         List<Listing> listings = listingRepository.findAll();
         return ListingMapper.toDTOList(listings);
     }
 
+    @Transactional(readOnly = true)
+    public boolean hasListings() {
+        return listingRepository.existsByZpidIsNotNull();
+    }
+
+    @Transactional(readOnly = true)
     public Page<ListingResponseDTO> getListings(int page, int size, String sortBy, String sortDir) {
         // Validate pagination parameters
         if (page < 0) page = 0;
@@ -50,7 +118,7 @@ public class ListingService {
         
         // Create sort object
         Sort.Direction direction = "DESC".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, validSortBy);
+        Sort sort = pageSort(validSortBy, direction);
         
         // Create pageable object
         Pageable pageable = PageRequest.of(page, size, sort);
@@ -79,23 +147,32 @@ public class ListingService {
     }
 
     // New method: Get filtered listings without pagination
-    public List<ListingResponseDTO> getFilteredListings(ListingFilterCriteriaDTO filters) {
-        List<Listing> listings;
-        
-        if (filters.hasFilters()) {
-            Specification<Listing> spec = ListingSpecification.withFilters(filters);
-            listings = listingRepository.findAll(spec);
-            logger.info("Found {} listings with applied filters", listings.size());
-        } else {
-            listings = listingRepository.findAll();
-            logger.info("Found {} listings without filters", listings.size());
+    public List<EncodedListing> getFilteredListings(ListingFilterCriteriaDTO filters) {
+        SearchKey key = SearchKey.of(filters, -1, 0, null, null, pinnedToPrimary());
+        List<EncodedListing> listings = coalesce(key, () -> readOnlyTransaction.execute(status -> {
+            List<Listing> matches;
+            if (filters.hasFilters()) {
+                Specification<Listing> spec = ListingSpecification.withFilters(filters);
+                matches = listingRepository.findAll(spec);
+                logger.info("Found {} listings with applied filters", matches.size());
+            } else {
+                matches = listingRepository.findAll();
+                logger.info("Found {} listings without filters", matches.size());
+            }
+            // Possibly the whole catalog, so it is encoded around the JSON cache rather than through it
+            return encodeUncached(matches, ListingView.CARD);
+        }));
+
+        // Callers that shared the result still mark saved listings on their own copies
+        List<EncodedListing> copies = new ArrayList<>(listings.size());
+        for (EncodedListing listing : listings) {
+            copies.add(listing.copy());
         }
-        
-        return ListingMapper.toDTOList(listings);
+        return copies;
     }
 
     // New method: Get filtered listings with pagination
-    public Page<ListingResponseDTO> getFilteredListings(int page, int size, String sortBy, String sortDir, ListingFilterCriteriaDTO filters) {
+    public Page<EncodedListing> getFilteredListings(int page, int size, String sortBy, String sortDir, ListingFilterCriteriaDTO filters) {
         // Validate pagination parameters
         if (page < 0) page = 0;
         if (size <= 0 || size > 100) size = 20; // Max 100 per page to prevent abuse
@@ -105,31 +182,128 @@ public class ListingService {
         
         // Create sort object
         Sort.Direction direction = "DESC".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, validSortBy);
+        Sort sort = pageSort(validSortBy, direction);
         
         // Create pageable object
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        // Get filtered and paginated results
-        Page<Listing> listingPage;
-        if (filters.hasFilters()) {
-            Specification<Listing> spec = ListingSpecification.withFilters(filters);
-            listingPage = listingRepository.findAll(spec, pageable);
-            logger.info("Found {} listings on page {} with applied filters", listingPage.getContent().size(), page);
-        } else {
-            listingPage = listingRepository.findAll(pageable);
-            logger.info("Found {} listings on page {} without filters", listingPage.getContent().size(), page);
-        }
-        
-        // Convert to DTO page
-        return listingPage.map(ListingMapper::toDTO);
+        SearchKey key = SearchKey.of(filters, page, size, validSortBy, direction, pinnedToPrimary());
+        Page<EncodedListing> listingPage = coalesce(key, () -> readOnlyTransaction.execute(status -> {
+            // Answered in memory while the search index is current, loading just the page's listings
+            ListingSearchIndexService indexService = listingSearchIndex.getIfAvailable();
+            ListingSearchIndex index = indexService != null ? indexService.current() : null;
+            if (index != null) {
+                ListingSearchIndex.Hits hits = index.search(filters, ListingSearchIndex.SortField.of(validSortBy),
+                        direction == Sort.Direction.DESC, (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE),
+                        pageable.getPageSize());
+                List<EncodedListing> content = new ArrayList<>(hits.zpids().size());
+                for (Listing listing : loadInOrder(hits.zpids())) {
+                    if (listing != null) {
+                        content.add(listingJsonCache.encode(listing, ListingView.CARD));
+                    }
+                }
+                logger.info("Found {} listings on page {} from the search index", content.size(), pageable.getPageNumber());
+                return new PageImpl<>(content, pageable, hits.total());
+            }
+
+            // Get filtered and paginated results
+            Page<Listing> matches;
+            if (filters.hasFilters()) {
+                Specification<Listing> spec = ListingSpecification.withFilters(filters);
+                matches = listingRepository.findAll(spec, pageable);
+                logger.info("Found {} listings on page {} with applied filters", matches.getContent().size(), pageable.getPageNumber());
+            } else {
+                matches = listingRepository.findAll(pageable);
+                logger.info("Found {} listings on page {} without filters", matches.getContent().size(), pageable.getPageNumber());
+            }
+
+            // Reuse cached JSON for listings unchanged since they were last encoded
+            return matches.map(listing -> listingJsonCache.encode(listing, ListingView.CARD));
+        }));
+
+        return listingPage.map(EncodedListing::copy);
     }
 
-    public Optional<ListingResponseDTO> getListing(String zpid) {
+    // The order ListingSearchIndex pages in, so a client paging across an index refresh sees each
+    // listing once: ties by zpid in the same direction, since every row is a tie on a sort like beds.
+    // Missing values go last ascending and first descending, which is Postgres's default.
+    static Sort pageSort(String property, Sort.Direction direction) {
+        return "zpid".equals(property) ? Sort.by(direction, property) : Sort.by(direction, property, "zpid");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(SearchKey key, Supplier<T> search) {
+        return searchCoalescing != null ? (T) searchCoalescing.execute(key, search::get) : search.get();
+    }
+
+    // A client reading its own recent writes is routed to the primary and mustn't share a replica read
+    private boolean pinnedToPrimary() {
+        ReadYourWritesWindow window = readYourWritesWindow.getIfAvailable();
+        return window != null && window.isActive();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<EncodedListing> getListing(String zpid) {
         Optional<Listing> listing = listingRepository.findById(zpid);
-        return listing.map(ListingMapper::toDTO);
+        return listing.map(l -> listingJsonCache.encode(l, ListingView.DETAIL));
+    }
+
+    // Resolves many zpids in one round trip: listings in the second-level cache are taken from it and
+    // the rest are loaded with a single IN query. Repeated zpids are returned once.
+    @Transactional(readOnly = true)
+    public ListingBatchResponseDTO getListings(List<String> zpids, ListingView view) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(zpids));
+        List<Listing> found = loadInOrder(ids);
+
+        List<EncodedListing> listings = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Listing listing = found.get(i);
+            if (listing != null) {
+                listings.add(listingJsonCache.encode(listing, view));
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        logger.info("Found {} of {} requested listings", listings.size(), ids.size());
+        return new ListingBatchResponseDTO(listings, missing);
+    }
+
+    // Listings for the zpids in the same order, null where there is none
+    private List<Listing> loadInOrder(List<String> zpids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Listing.class)
+                // Multi-loads skip the second-level cache unless a cache mode is given
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(true)
+                .multiLoad(zpids);
     }
 
+    @Transactional(readOnly = true)
+    public ListingPhotosResponseDTO getListingPhotos(String zpid, int offset, int limit) {
+        ListingRepository.ListingPhotosView photos = listingRepository.findPhotosByZpid(zpid)
+                .orElseThrow(() -> new ListingNotFoundException("Listing not found with zpid: " + zpid));
+
+        // Validate range parameters
+        if (offset < 0) offset = 0;
+        if (limit <= 0 || limit > MAX_PHOTOS_PER_PAGE) limit = MAX_PHOTOS_PER_PAGE;
+
+        String[] keys = photos.getPhotoKeys();
+        int totalCount = keys != null ? keys.length : 0;
+        List<String> urls = new ArrayList<>();
+
+        // Only the requested window is expanded into URLs
+        if (photos.getBaseUrl() != null) {
+            int end = Math.min(totalCount, offset + limit);
+            for (int i = offset; i < end; i++) {
+                urls.add(PhotoUrlTemplate.expand(photos.getBaseUrl(), keys[i]));
+            }
+        }
+
+        return new ListingPhotosResponseDTO(zpid, offset, limit, totalCount, urls);
+    }
+
+    @Transactional
     public ListingResponseDTO createListing(ListingRequestDTO listingRequestDTO) {
         if(listingRepository.existsByZpid(listingRequestDTO.getZpid())){
             throw new ZpidAlreadyExistsException("A listing with this zpid already exists: " + listingRequestDTO.getZpid());
@@ -139,10 +313,19 @@ public class ListingService {
             throw new AddressAlreadyExistsException("A listing with this address already exists: " + listingRequestDTO.getAddress());
         }
 
-        Listing newListing = listingRepository.save(ListingMapper.toModel(listingRequestDTO));
+        Listing listing = ListingMapper.toModel(listingRequestDTO);
+        resolvePhotoTemplate(listing, listingRequestDTO);
+
+        Listing newListing = listingRepository.save(listing);
+        savedSearchService.recordMatches(List.of(newListing));
+        listingOutboxService.record(ListingChangeType.CREATED, newListing);
+        listingStreamService.publish(ListingChangeType.CREATED, newListing);
+        cacheInvalidationService.publish(CacheInvalidationService.EntityType.LISTING, newListing.getZpid());
+        markSearchIndexStale();
         return ListingMapper.toDTO(newListing);
     }
 
+    @Transactional
     public ListingResponseDTO updateListing(String zpid, ListingRequestDTO listingRequestDTO) {
         Listing listing = listingRepository.findById(zpid)
                 .orElseThrow(() -> new ListingNotFoundException("Listing not found with zpid: " + zpid));
@@ -152,6 +335,8 @@ public class ListingService {
             listingRepository.existsByAddress(listingRequestDTO.getAddress())) {
             throw new AddressAlreadyExistsException("A listing with this address already exists: " + listingRequestDTO.getAddress());
         }
+        // Stream subscribers the update moves the listing away from are told it left their filters
+        Listing previous = ListingSpecification.filteredFields(listing);
 
         // Update basic address information
         listing.setAddress(listingRequestDTO.getAddress());
@@ -195,28 +380,36 @@ public class ListingService {
             listing.setVariableData(null);
         }
         
-        if (listingRequestDTO.getCarouselPhotosComposable() != null) {
-            listing.setCarouselPhotosComposable(listingRequestDTO.getCarouselPhotosComposable().toString());
-        } else {
-            listing.setCarouselPhotosComposable(null);
-        }
+        listing.setPhotoKeys(ListingMapper.extractPhotoKeys(listingRequestDTO.getCarouselPhotosComposable()));
+        resolvePhotoTemplate(listing, listingRequestDTO);
         
         if (listingRequestDTO.getFactsAndFeatures() != null) {
             listing.setFactsAndFeatures(listingRequestDTO.getFactsAndFeatures().toString());
         } else {
             listing.setFactsAndFeatures(null);
         }
+        ListingMapper.applyExtractedAttributes(listing, listingRequestDTO);
 
         // Save updated entity and return DTO
         Listing updatedListing = listingRepository.save(listing);
+        savedSearchService.recordMatches(List.of(updatedListing));
+        listingOutboxService.record(ListingChangeType.UPDATED, updatedListing);
+        listingStreamService.publish(ListingChangeType.UPDATED, updatedListing, previous);
+        cacheInvalidationService.publish(CacheInvalidationService.EntityType.LISTING, zpid);
+        markSearchIndexStale();
         return ListingMapper.toDTO(updatedListing);
     }
 
+    @Transactional
     public void deleteListing(String zpid) {
-        if (!listingRepository.existsById(zpid)) {
-            throw new ListingNotFoundException("Listing not found with zpid: " + zpid);
-        }
-        listingRepository.deleteById(zpid);
+        Listing listing = listingRepository.findById(zpid)
+                .orElseThrow(() -> new ListingNotFoundException("Listing not found with zpid: " + zpid));
+        listingRepository.delete(listing);
+        listingJsonCache.evict(zpid);
+        listingOutboxService.record(ListingChangeType.DELETED, listing);
+        listingStreamService.publish(ListingChangeType.DELETED, listing);
+        cacheInvalidationService.publish(CacheInvalidationService.EntityType.LISTING, zpid);
+        markSearchIndexStale();
     }
 
     @Transactional
@@ -242,6 +435,7 @@ public class ListingService {
                 try {
                     ListingRequestDTO dto = batch.get(j);
                     Listing listing = ListingMapper.toModel(dto);
+                    resolvePhotoTemplate(listing, dto);
                     batchListings.add(listing);
                 } catch (Exception e) {
                     errorCount++;
@@ -253,7 +447,26 @@ public class ListingService {
             
             // Batch save to database
             try {
+                // saveAll merges over an existing zpid, including one repeated within the batch
+                Set<String> existingZpids = new HashSet<>(listingRepository.findExistingZpids(
+                        batchListings.stream().map(Listing::getZpid).toList()));
+                // Pre-merge state of the rows being replaced, for stream subscribers they may leave
+                Map<String, Listing> previousListings = new HashMap<>();
+                if (listingStreamService.subscriberCount() > 0) {
+                    for (Listing existing : listingRepository.findAllById(existingZpids)) {
+                        previousListings.put(existing.getZpid(), ListingSpecification.filteredFields(existing));
+                    }
+                }
                 List<Listing> savedListings = listingRepository.saveAll(batchListings);
+                savedSearchService.recordMatches(savedListings);
+                for (Listing listing : savedListings) {
+                    ListingChangeType type = existingZpids.add(listing.getZpid()) ? ListingChangeType.CREATED : ListingChangeType.UPDATED;
+                    listingOutboxService.record(type, listing);
+                    listingStreamService.publish(type, listing, previousListings.get(listing.getZpid()));
+                    // Other instances may hold the old row
+                    cacheInvalidationService.publish(CacheInvalidationService.EntityType.LISTING, listing.getZpid());
+                }
+                markSearchIndexStale();
                 successCount += savedListings.size();
                 logger.info("Successfully saved batch of {} listings", savedListings.size());
             } catch (Exception e) {
@@ -271,6 +484,48 @@ public class ListingService {
         return result;
     }
 
+    private void markSearchIndexStale() {
+        listingSearchIndex.ifAvailable(ListingSearchIndexService::markStale);
+    }
+
+    private List<EncodedListing> encodeUncached(List<Listing> listings, ListingView view) {
+        List<EncodedListing> encoded = new ArrayList<>(listings.size());
+        for (Listing listing : listings) {
+            encoded.add(listingJsonCache.encodeUncached(listing, view));
+        }
+        return encoded;
+    }
+
+    private void resolvePhotoTemplate(Listing listing, ListingRequestDTO listingRequestDTO) {
+        String baseUrl = ListingMapper.extractPhotoBaseUrl(listingRequestDTO.getCarouselPhotosComposable());
+        listing.setPhotoTemplate(listing.getPhotoKeys() != null ? photoTemplateService.resolve(baseUrl) : null);
+    }
+
+    // Identity of a search for coalescing, normalized so equivalent requests match: the IN lists don't
+    // depend on order or repeats, and prices compare by value
+    private record SearchKey(BigDecimal minPrice, BigDecimal maxPrice, Integer minArea, Integer maxArea,
+                             List<String> cities, List<String> zipCodes, Integer beds, Integer baths,
+                             LocalDateTime availableBy, Boolean hasAirConditioning, Boolean hasFireplace,
+                             Boolean hasPool, Boolean hasSpa, List<String> variableDataTypes,
+                             int page, int size, String sortBy, Sort.Direction direction, boolean primary) {
+        static SearchKey of(ListingFilterCriteriaDTO filters, int page, int size, String sortBy,
+                            Sort.Direction direction, boolean primary) {
+            return new SearchKey(normalize(filters.getMinPrice()), normalize(filters.getMaxPrice()),
+                    filters.getMinArea(), filters.getMaxArea(), normalize(filters.getCities()),
+                    normalize(filters.getZipCodes()), filters.getBeds(), filters.getBaths(), filters.getAvailableBy(),
+                    filters.getHasAirConditioning(), filters.getHasFireplace(), filters.getHasPool(), filters.getHasSpa(),
+                    normalize(filters.getVariableDataTypes()), page, size, sortBy, direction, primary);
+        }
+
+        private static BigDecimal normalize(BigDecimal value) {
+            return value != null ? value.stripTrailingZeros() : null;
+        }
+
+        private static List<String> normalize(List<String> values) {
+            return values != null && !values.isEmpty() ? List.copyOf(new TreeSet<>(values)) : null;
+        }
+    }
+
     public static class BulkImportResult {
         private final int totalCount;
         private final int successCount;
@@ -0,0 +1,296 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.dto.ListingView;
+import com.pm.backend.exception.ListingStreamFullException;
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.ListingChangeType;
+import com.pm.backend.specification.ListingSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server-Sent Events feed of listing writes for GET /listings/stream.
+// Writes are queued after commit and a single dispatcher thread fans each one out to the subscribers
+// whose filters it matches. An update that takes a listing out of a subscriber's filters is sent to that
+// subscriber as "removed", so the stream keeps tracking what GET /listings returns. Every subscriber has
+// a small buffer keyed by zpid, so a slow client gets only the latest state of each listing; one that
+// falls further behind loses its buffer and is sent a "resync" event to refetch instead. Connections are async requests: an idle subscriber holds no
+// thread, and a buffer is drained on a virtual thread started only when it has something to send.
+@Service
+public class ListingStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(ListingStreamService.class);
+
+    private static final String REMOVED = "removed";
+
+    // One listing write, encoded once for every subscriber. The listing, and for updates its state
+    // before the change, are only used for filtering.
+    private record Change(long id, String event, String zpid, Listing listing, Listing previous, String data) {}
+
+    private final ListingJsonCache listingJsonCache;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<Change> changes;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Thread dispatcher;
+
+    public ListingStreamService(ListingJsonCache listingJsonCache,
+                                @Value("${app.listing-stream.buffer-size:64}") int bufferSize,
+                                @Value("${app.listing-stream.queue-size:10000}") int queueSize,
+                                @Value("${app.listing-stream.max-subscribers:10000}") int maxSubscribers,
+                                @Value("${app.listing-stream.timeout:30m}") Duration timeout) {
+        this.listingJsonCache = listingJsonCache;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.changes = new ArrayBlockingQueue<>(queueSize);
+        this.dispatcher = Thread.ofVirtual().name("listing-stream-dispatcher").start(this::dispatch);
+    }
+
+    public SseEmitter subscribe(ListingFilterCriteriaDTO filters) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ListingStreamFullException("Listing stream is at its limit of " + maxSubscribers + " subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, filters);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public void publish(ListingChangeType type, Listing listing) {
+        publish(type, listing, null);
+    }
+
+    // Called from the listing write transaction; subscribers only hear about it once it commits.
+    // Updates pass the listing's state from before the change (see ListingSpecification.filteredFields),
+    // so subscribers it no longer matches can be told. Nothing is encoded while nobody is listening.
+    public void publish(ListingChangeType type, Listing listing, Listing previous) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // Encoded here, while lazy associations can still load
+        String data = type == ListingChangeType.DELETED ? zpidOnly(listing.getZpid()) : encodeCard(listing);
+        Change change = new Change(0, type.name().toLowerCase(), listing.getZpid(), listing, previous, data);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(change);
+                }
+            });
+        } else {
+            enqueue(change);
+        }
+    }
+
+    private static String zpidOnly(String zpid) {
+        return "{\"zpid\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(zpid)) + "\"}";
+    }
+
+    private String encodeCard(Listing listing) {
+        EncodedListing card = listingJsonCache.encode(listing, ListingView.CARD);
+        return card.getBody().getValue() + card.getTail().getValue();
+    }
+
+    // Comments keep proxies from closing idle connections and reveal clients that have gone away
+    @Scheduled(fixedDelayString = "${app.listing-stream.heartbeat-interval:30s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    // Open streams would otherwise hold up graceful shutdown, which waits for in-flight requests and
+    // starts before beans are destroyed; clients reconnect to another instance
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        dispatcher.interrupt();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdown();
+    }
+
+    private void enqueue(Change change) {
+        Change numbered = new Change(nextId.incrementAndGet(), change.event(), change.zpid(), change.listing(),
+                change.previous(), change.data());
+        if (!changes.offer(numbered)) {
+            // The dispatcher itself is behind; every subscriber has missed this change
+            logger.warn("Listing stream queue is full, asking {} subscribers to resync", subscribers.size());
+            for (Subscriber subscriber : subscribers) {
+                subscriber.overflow();
+            }
+        }
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Change change;
+            try {
+                change = changes.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Change removal = null;
+            for (Subscriber subscriber : subscribers) {
+                try {
+                    if (ListingSpecification.matches(subscriber.filters, change.listing())) {
+                        subscriber.offer(change);
+                    } else if (change.previous() != null && ListingSpecification.matches(subscriber.filters, change.previous())) {
+                        if (removal == null) {
+                            removal = new Change(change.id(), REMOVED, change.zpid(), change.listing(), null, zpidOnly(change.zpid()));
+                        }
+                        subscriber.offer(removal);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to dispatch listing {} to a stream subscriber", change.zpid(), e);
+                }
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ListingFilterCriteriaDTO filters;
+
+        // Pending changes by zpid, oldest first; guarded by this
+        private final Map<String, Change> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+        private boolean sending;
+
+        Subscriber(SseEmitter emitter, ListingFilterCriteriaDTO filters) {
+            this.emitter = emitter;
+            this.filters = filters;
+        }
+
+        void offer(Change change) {
+            synchronized (this) {
+                if (resync) {
+                    return;
+                }
+                // A newer change to the same listing replaces the pending one and moves to the back
+                if (pending.remove(change.zpid()) == null && pending.size() >= bufferSize) {
+                    pending.clear();
+                    resync = true;
+                } else {
+                    pending.put(change.zpid(), change);
+                }
+            }
+            scheduleSend();
+        }
+
+        void overflow() {
+            synchronized (this) {
+                pending.clear();
+                resync = true;
+            }
+            scheduleSend();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (!pending.isEmpty() || resync) {
+                    return;
+                }
+                heartbeat = true;
+            }
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            synchronized (this) {
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                senders.execute(this::send);
+            } catch (RuntimeException e) {
+                // Shutting down
+                synchronized (this) {
+                    sending = false;
+                }
+            }
+        }
+
+        private void send() {
+            while (true) {
+                List<Change> batch;
+                boolean sendResync;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (pending.isEmpty() && !resync && !heartbeat) {
+                        sending = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat;
+                    resync = false;
+                    heartbeat = false;
+                }
+
+                try {
+                    if (sendResync) {
+                        emitter.send(SseEmitter.event().name("resync").data("{}"));
+                    }
+                    for (Change change : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.id()))
+                                .name(change.event())
+                                .data(change.data()));
+                    }
+                    if (sendHeartbeat) {
+                        emitter.send(SseEmitter.event().comment(""));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away or the emitter already completed
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        sending = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
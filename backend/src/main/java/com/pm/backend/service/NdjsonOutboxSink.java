@@ -0,0 +1,60 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.ListingChangeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends changes to a local file, one JSON object per line. Meant for tests and local development,
+// and as the simplest example of a sink.
+@Component
+@ConditionalOnProperty(name = "app.outbox.ndjson.enabled", havingValue = "true")
+public class NdjsonOutboxSink implements OutboxSink {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public NdjsonOutboxSink(ObjectMapper objectMapper, @Value("${app.outbox.ndjson.path:outbox/listing-changes.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public String getName() {
+        return "ndjson";
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void publish(List<ListingChangeDTO> changes) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (ListingChangeDTO change : changes) {
+            objectMapper.writeValue(lines, change);
+            lines.write('\n');
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // Synced before the offset moves on, so a crash can repeat lines but not lose them
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.ListingChangeDTO;
+import com.pm.backend.model.OutboxOffset;
+import com.pm.backend.repository.OutboxOffsetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Drains the listing outbox to every OutboxSink bean. Each sink has an offset row holding the last
+// change it was given; a batch is read, published and the offset advanced in one transaction that
+// holds the row lock, so only one instance relays to a sink at a time and a failed batch is retried
+// from the same place. Replay moves an offset back.
+@Service
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final List<OutboxSink> sinks;
+    private final ListingOutboxService listingOutboxService;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    public OutboxRelay(List<OutboxSink> sinks, ListingOutboxService listingOutboxService,
+                       OutboxOffsetRepository outboxOffsetRepository, PlatformTransactionManager transactionManager,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.sinks = sinks;
+        this.listingOutboxService = listingOutboxService;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    // Bounded per run so a backlog doesn't hold up the other scheduled tasks
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:1s}")
+    public void relay() {
+        for (OutboxSink sink : sinks) {
+            try {
+                for (int i = 0; i < maxBatchesPerRun && relayBatch(sink); i++) {
+                    // Keep going while batches come back full
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to relay listing changes to sink {}: {}", sink.getName(), e.getMessage());
+            }
+        }
+    }
+
+    // Returns whether a full batch was delivered, so more may be waiting
+    boolean relayBatch(OutboxSink sink) {
+        register(sink.getName());
+        Boolean full = transactionTemplate.execute(status -> {
+            // Skipped while another instance holds the lock
+            OutboxOffset offset = outboxOffsetRepository.lockByConsumer(sink.getName()).orElse(null);
+            if (offset == null) {
+                return false;
+            }
+            List<ListingChangeDTO> changes = listingOutboxService.readAfter(offset.getLastEventId(), batchSize);
+            if (changes.isEmpty()) {
+                return false;
+            }
+            try {
+                sink.publish(changes);
+            } catch (Exception e) {
+                throw new IllegalStateException("Sink " + sink.getName() + " failed on changes after " + offset.getLastEventId(), e);
+            }
+            offset.setLastEventId(changes.get(changes.size() - 1).getId());
+            offset.setUpdatedAt(LocalDateTime.now());
+            return changes.size() == batchSize;
+        });
+        return Boolean.TRUE.equals(full);
+    }
+
+    // Redelivers every retained change after the given id on the sink's next run
+    public void replay(String sinkName, long afterId) {
+        if (sinks.stream().noneMatch(sink -> sink.getName().equals(sinkName))) {
+            throw new IllegalArgumentException("Unknown outbox sink: " + sinkName);
+        }
+        register(sinkName);
+        transactionTemplate.executeWithoutResult(status -> {
+            OutboxOffset offset = outboxOffsetRepository.findById(sinkName).orElseThrow();
+            offset.setLastEventId(Math.max(0, afterId));
+            offset.setUpdatedAt(LocalDateTime.now());
+        });
+        logger.info("Outbox sink {} will replay changes after {}", sinkName, afterId);
+    }
+
+    // Last change delivered to each sink
+    public Map<String, Long> getOffsets() {
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        for (OutboxSink sink : sinks) {
+            offsets.put(sink.getName(), outboxOffsetRepository.findById(sink.getName()).map(OutboxOffset::getLastEventId).orElse(0L));
+        }
+        return offsets;
+    }
+
+    // Changes are kept for the retention period, for clients syncing through the API, and until every
+    // sink has them
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:1h}")
+    public void purge() {
+        try {
+            long consumedUpTo = Long.MAX_VALUE;
+            if (!sinks.isEmpty()) {
+                Long min = outboxOffsetRepository.findMinLastEventId(sinks.stream().map(OutboxSink::getName).toList());
+                // A sink without an offset row hasn't started yet
+                consumedUpTo = min != null && registered.containsAll(sinks.stream().map(OutboxSink::getName).toList()) ? min : 0;
+            }
+            int purged = listingOutboxService.purge(consumedUpTo, LocalDateTime.now().minus(retention));
+            if (purged > 0) {
+                logger.info("Purged {} listing changes from the outbox", purged);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge the listing outbox: {}", e.getMessage());
+        }
+    }
+
+    private void register(String sinkName) {
+        if (!registered.contains(sinkName)) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxOffsetRepository.insertIfAbsent(sinkName, LocalDateTime.now()));
+            registered.add(sinkName);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.ListingChangeDTO;
+
+import java.util.List;
+
+// A downstream consumer the outbox relay delivers listing changes to. Delivery is at least once:
+// a batch is redelivered when publishing or recording the new offset fails, so sinks should treat
+// the change id as an idempotency key.
+public interface OutboxSink {
+    // Identifies the sink's offset; renaming a sink starts it over from the beginning
+    String getName();
+
+    // Changes in id order; throwing leaves the offset where it was
+    void publish(List<ListingChangeDTO> changes) throws Exception;
+}
@@ -0,0 +1,54 @@
+package com.pm.backend.service;
+
+import com.pm.backend.model.PhotoUrlTemplate;
+import com.pm.backend.repository.PhotoUrlTemplateRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class PhotoTemplateService {
+    private final PhotoUrlTemplateRepository photoUrlTemplateRepository;
+    private final TransactionTemplate ownTransaction;
+
+    // Only a handful of distinct templates exist, so resolved rows are kept for the life of the process
+    private final Map<String, PhotoUrlTemplate> templatesByBaseUrl = new ConcurrentHashMap<>();
+
+    public PhotoTemplateService(PhotoUrlTemplateRepository photoUrlTemplateRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.photoUrlTemplateRepository = photoUrlTemplateRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Cache hits touch no transaction or connection. A miss is looked up, or inserted, in a transaction
+    // of its own so a cached template never points at a row that was rolled back; that takes a second
+    // connection, but only the first time a template is seen.
+    public PhotoUrlTemplate resolve(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            return null;
+        }
+
+        PhotoUrlTemplate cached = templatesByBaseUrl.get(baseUrl);
+        if (cached != null) {
+            return cached;
+        }
+
+        PhotoUrlTemplate template;
+        try {
+            template = ownTransaction.execute(status -> photoUrlTemplateRepository.findByBaseUrl(baseUrl)
+                    .orElseGet(() -> photoUrlTemplateRepository.saveAndFlush(new PhotoUrlTemplate(baseUrl))));
+        } catch (DataIntegrityViolationException e) {
+            // Another transaction inserted the same template first
+            template = ownTransaction.execute(status -> photoUrlTemplateRepository.findByBaseUrl(baseUrl)
+                    .orElseThrow(() -> e));
+        }
+        templatesByBaseUrl.put(baseUrl, template);
+        return template;
+    }
+}
@@ -0,0 +1,272 @@
+package com.pm.backend.service;
+
+import com.pm.backend.service.CacheInvalidationService.EntityType;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+
+// Cluster transport for cache invalidations over Postgres LISTEN/NOTIFY. Each instance holds two
+// connections of its own, outside the Hikari pools: one sends queued invalidations with pg_notify,
+// batched into as few payloads as fit, and one LISTENs and hands what other instances sent to
+// CacheInvalidationService.
+//
+// A payload is "<node> <sequence>" followed by one "<TYPE> <id>" line per invalidation. Sequences count
+// up per node and a single thread sends them over one session, so they arrive in order; a gap means a
+// payload was lost (a failed send, an overflowing queue) and the receiver flushes everything. So does
+// a listener that had to reconnect, since notifications aren't delivered to a closed session.
+@Service
+@ConditionalOnProperty(name = "app.cache-invalidation.enabled", havingValue = "true")
+public class PostgresInvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7_500;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private record Invalidation(EntityType type, String id) {}
+
+    private final CacheInvalidationService cacheInvalidationService;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final BlockingQueue<Invalidation> outbox;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    // Set when the outbox overflows; the sender then skips a sequence number
+    private volatile boolean dropped;
+    private Thread sender;
+    private Thread listener;
+
+    // Owned by the sender and listener threads respectively
+    private long sequence;
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+
+    public PostgresInvalidationBus(CacheInvalidationService cacheInvalidationService,
+                                   DataSourceProperties dataSourceProperties,
+                                   @Value("${app.cache-invalidation.channel:cache_invalidation}") String channel,
+                                   @Value("${app.cache-invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+                                   @Value("${app.cache-invalidation.queue-size:10000}") int queueSize) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+        this.outbox = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        running = true;
+        sender = Thread.ofVirtual().name("cache-invalidation-sender").start(this::sendLoop);
+        listener = Thread.ofVirtual().name("cache-invalidation-listener").start(this::listenLoop);
+        logger.info("Cache invalidation bus started on channel {} as node {}", channel, nodeId);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+            listener.interrupt();
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void send(EntityType type, String id) {
+        if (!outbox.offer(new Invalidation(type, id))) {
+            dropped = true;
+        }
+    }
+
+    private void sendLoop() {
+        Connection connection = null;
+        List<Invalidation> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(outbox.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            outbox.drainTo(batch);
+            if (dropped) {
+                dropped = false;
+                sequence++;
+            }
+
+            List<String> payloads = payloads(batch);
+            batch.clear();
+            try {
+                if (connection == null) {
+                    connection = connect();
+                }
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    for (String payload : payloads) {
+                        statement.setString(1, channel);
+                        statement.setString(2, payload);
+                        statement.execute();
+                    }
+                }
+            } catch (SQLException e) {
+                // The sequence numbers of the lost payloads leave a gap, so the other instances flush
+                logger.warn("Failed to send {} cache invalidation payloads: {}", payloads.size(), e.getMessage());
+                close(connection);
+                connection = null;
+                if (!pause()) {
+                    break;
+                }
+            }
+        }
+        close(connection);
+    }
+
+    private List<String> payloads(List<Invalidation> batch) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = null;
+        int bytes = 0;
+        for (Invalidation invalidation : batch) {
+            String line = invalidation.type().name() + ' ' + invalidation.id();
+            int lineBytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (payload != null && bytes + lineBytes > MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.toString());
+                payload = null;
+            }
+            if (payload == null) {
+                payload = new StringBuilder(nodeId).append(' ').append(++sequence);
+                bytes = payload.length();
+            }
+            payload.append('\n').append(line);
+            bytes += lineBytes;
+        }
+        if (payload != null) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    logger.info("Cache invalidation listener reconnected, anything sent meanwhile was missed");
+                    lastSequenceByNode.clear();
+                    cacheInvalidationService.invalidateAll();
+                }
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1_000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener lost its connection: {}", e.getMessage());
+                if (!pause()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            String[] lines = payload.split("\n");
+            int separator = lines[0].indexOf(' ');
+            String node = lines[0].substring(0, separator);
+            long received = Long.parseLong(lines[0].substring(separator + 1));
+            if (node.equals(nodeId)) {
+                return;
+            }
+
+            Long last = lastSequenceByNode.put(node, received);
+            if (last != null && received != last + 1) {
+                logger.warn("Missed cache invalidations from node {} ({} after {})", node, received, last);
+                cacheInvalidationService.invalidateAll();
+                return;
+            }
+
+            for (int i = 1; i < lines.length; i++) {
+                int space = lines[i].indexOf(' ');
+                cacheInvalidationService.invalidate(EntityType.valueOf(lines[i].substring(0, space)), lines[i].substring(space + 1));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Malformed cache invalidation payload, flushing: {}", payload, e);
+            cacheInvalidationService.invalidateAll();
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "backend-cache-invalidation");
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(reconnectDelay);
+            return running;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close cache invalidation connection", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.dto.SaveableListing;
+import com.pm.backend.exception.ListingNotFoundException;
+import com.pm.backend.mapper.ListingMapper;
+import com.pm.backend.model.Listing;
+import com.pm.backend.repository.ListingRepository;
+import com.pm.backend.repository.SavedListingRepository;
+import com.pm.backend.util.LongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class SavedListingService implements CacheInvalidationService.Handler {
+    private static final Logger logger = LoggerFactory.getLogger(SavedListingService.class);
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final SavedListingRepository savedListingRepository;
+    private final ListingRepository listingRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    // Hashed saved zpids per user, least recently used users are evicted first
+    private final Map<Long, LongHashSet> savedZpidsByUser = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, LongHashSet> eldest) {
+                    return size() > MAX_CACHED_USERS;
+                }
+            });
+    // Bumped, under the map's lock, by every eviction. A set loaded while it changed may predate the
+    // write that caused the eviction, so it is returned but not cached.
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SavedListingService(SavedListingRepository savedListingRepository, ListingRepository listingRepository,
+                               CacheInvalidationService cacheInvalidationService) {
+        this.savedListingRepository = savedListingRepository;
+        this.listingRepository = listingRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ListingResponseDTO> getSavedListings(Long userId) {
+        List<String> zpids = savedListingRepository.findListingZpidsByUserId(userId);
+        if (zpids.isEmpty()) {
+            return List.of();
+        }
+
+        // Hydrate every saved listing with a single IN query, then restore the saved order
+        Map<String, Listing> listingsByZpid = new HashMap<>();
+        for (Listing listing : listingRepository.findAllById(zpids)) {
+            listingsByZpid.put(listing.getZpid(), listing);
+        }
+
+        List<ListingResponseDTO> savedListings = new ArrayList<>(zpids.size());
+        for (String zpid : zpids) {
+            Listing listing = listingsByZpid.get(zpid);
+            if (listing != null) {
+                savedListings.add(ListingMapper.toDTO(listing));
+            }
+        }
+        logger.info("Loaded {} saved listings for user {}", savedListings.size(), userId);
+        return savedListings;
+    }
+
+    // An index-only scan of idx_saved_listings_user_saved_at, already in saved order
+    @Transactional(readOnly = true)
+    public List<String> getSavedZpids(Long userId) {
+        return savedListingRepository.findListingZpidsByUserId(userId);
+    }
+
+    public boolean isSaved(Long userId, String zpid) {
+        return savedZpidSet(userId).containsString(zpid);
+    }
+
+    // One cached set lookup per call, then a hash probe per listing and no extra queries
+    public void markSaved(Long userId, Collection<? extends SaveableListing> listings) {
+        LongHashSet savedZpids = savedZpidSet(userId);
+        for (SaveableListing listing : listings) {
+            listing.setSaved(savedZpids.containsString(listing.getZpid()));
+        }
+    }
+
+    private LongHashSet savedZpidSet(Long userId) {
+        LongHashSet cached = savedZpidsByUser.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = evictions.get();
+        LongHashSet savedZpids = LongHashSet.ofStrings(savedListingRepository.findListingZpidsByUserId(userId));
+        synchronized (savedZpidsByUser) {
+            if (evictions.get() == version) {
+                savedZpidsByUser.put(userId, savedZpids);
+            }
+        }
+        return savedZpids;
+    }
+
+    @Transactional
+    public void saveListing(Long userId, String zpid) {
+        if (!listingRepository.existsById(zpid)) {
+            throw new ListingNotFoundException("Listing not found with zpid: " + zpid);
+        }
+
+        // Saving twice is a no-op thanks to the (user_id, listing_zpid) unique constraint
+        if (savedListingRepository.insertIfAbsent(userId, zpid, LocalDateTime.now()) > 0) {
+            evictAfterCommit(userId);
+        }
+    }
+
+    @Transactional
+    public void removeSavedListing(Long userId, String zpid) {
+        if (savedListingRepository.deleteByUserIdAndListingZpid(userId, zpid) > 0) {
+            evictAfterCommit(userId);
+        }
+    }
+
+    // Evicting before commit would let a concurrent read cache the pre-change set again.
+    // Other instances evict their copy once the change reaches them.
+    private void evictAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+        cacheInvalidationService.publish(CacheInvalidationService.EntityType.SAVED_LISTINGS, userId);
+    }
+
+    private void evict(Long userId) {
+        synchronized (savedZpidsByUser) {
+            evictions.incrementAndGet();
+            savedZpidsByUser.remove(userId);
+        }
+    }
+
+    // A listing saved or removed through another instance
+    @Override
+    public void invalidate(CacheInvalidationService.EntityType type, String id) {
+        if (type == CacheInvalidationService.EntityType.SAVED_LISTINGS) {
+            evict(Long.valueOf(id));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (savedZpidsByUser) {
+            evictions.incrementAndGet();
+            savedZpidsByUser.clear();
+        }
+    }
+}
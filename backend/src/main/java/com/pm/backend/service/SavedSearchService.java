@@ -0,0 +1,372 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.dto.SavedSearchRequestDTO;
+import com.pm.backend.dto.SavedSearchResponseDTO;
+import com.pm.backend.exception.InvalidSavedSearchException;
+import com.pm.backend.exception.SavedSearchNotFoundException;
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.SavedSearch;
+import com.pm.backend.model.SavedSearchAlert;
+import com.pm.backend.model.User;
+import com.pm.backend.repository.ListingRepository;
+import com.pm.backend.repository.SavedSearchAlertRepository;
+import com.pm.backend.repository.SavedSearchRepository;
+import com.pm.backend.repository.UserRepository;
+import com.pm.backend.util.SavedSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SavedSearchService implements CacheInvalidationService.Handler {
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchService.class);
+    private static final int DIGEST_BATCH_SIZE = 5_000;
+    private static final int MAX_LISTINGS_PER_SEARCH = 10;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchAlertRepository alertRepository;
+    private final ListingRepository listingRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    @Value("${app.saved-search.max-per-user:20}")
+    private int maxPerUser;
+
+    // Swapped wholesale on refresh, updated in place as searches are saved or deleted
+    private volatile SavedSearchIndex index = new SavedSearchIndex();
+    // Guards index changes against a refresh swapping the index under them
+    private final Object indexLock = new Object();
+    // While a refresh runs, the changes made to the old index by id (null criteria for a removal),
+    // replayed onto the rebuilt one before it is swapped in; guarded by indexLock
+    private Map<Long, ListingFilterCriteriaDTO> changedDuringRefresh;
+
+    public SavedSearchService(SavedSearchRepository savedSearchRepository, SavedSearchAlertRepository alertRepository,
+                              ListingRepository listingRepository, UserRepository userRepository,
+                              EmailService emailService, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              CacheInvalidationService cacheInvalidationService) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.alertRepository = alertRepository;
+        this.listingRepository = listingRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    // Loaded before the application reports ready for traffic
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadIndex() {
+        refreshIndex();
+    }
+
+    // Catches up with other instances should their invalidations not arrive
+    @Scheduled(fixedDelayString = "${app.saved-search.index-refresh-interval:5m}",
+               initialDelayString = "${app.saved-search.index-refresh-interval:5m}")
+    public synchronized void refreshIndex() {
+        synchronized (indexLock) {
+            changedDuringRefresh = new HashMap<>();
+        }
+        try {
+            Map<Long, ListingFilterCriteriaDTO> searches = new HashMap<>();
+            for (SavedSearchRepository.SavedSearchCriteriaView search : savedSearchRepository.findAllCriteria()) {
+                searches.put(search.getId(), parseCriteria(search.getCriteria()));
+            }
+            SavedSearchIndex rebuilt = new SavedSearchIndex(searches);
+
+            // The snapshot may predate a change that reached the old index while it was read
+            synchronized (indexLock) {
+                changedDuringRefresh.forEach((id, criteria) -> apply(rebuilt, id, criteria));
+                index = rebuilt;
+            }
+            logger.info("Indexed {} saved searches", rebuilt.size());
+        } finally {
+            synchronized (indexLock) {
+                changedDuringRefresh = null;
+            }
+        }
+    }
+
+    private void updateIndex(long savedSearchId, ListingFilterCriteriaDTO criteria) {
+        synchronized (indexLock) {
+            apply(index, savedSearchId, criteria);
+            if (changedDuringRefresh != null) {
+                changedDuringRefresh.put(savedSearchId, criteria);
+            }
+        }
+    }
+
+    private static void apply(SavedSearchIndex target, long savedSearchId, ListingFilterCriteriaDTO criteria) {
+        if (criteria != null) {
+            target.put(savedSearchId, criteria);
+        } else {
+            target.remove(savedSearchId);
+        }
+    }
+
+    // A search saved or deleted through another instance
+    @Override
+    public void invalidate(CacheInvalidationService.EntityType type, String id) {
+        if (type != CacheInvalidationService.EntityType.SAVED_SEARCH) {
+            return;
+        }
+        long searchId = Long.parseLong(id);
+        updateIndex(searchId, savedSearchRepository.findById(searchId)
+                .map(search -> parseCriteria(search.getCriteria()))
+                .orElse(null));
+    }
+
+    @Override
+    public void invalidateAll() {
+        refreshIndex();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchResponseDTO> getSavedSearches(Long userId) {
+        List<SavedSearchResponseDTO> searches = new ArrayList<>();
+        for (SavedSearch search : savedSearchRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+            searches.add(toDTO(search));
+        }
+        return searches;
+    }
+
+    @Transactional
+    public SavedSearchResponseDTO createSavedSearch(Long userId, SavedSearchRequestDTO request) {
+        ListingFilterCriteriaDTO criteria = request.getCriteria();
+        if (!criteria.hasFilters()) {
+            throw new InvalidSavedSearchException("A saved search needs at least one filter");
+        }
+        if (savedSearchRepository.countByUserId(userId) >= maxPerUser) {
+            throw new InvalidSavedSearchException("Saved search limit reached (" + maxPerUser + ")");
+        }
+
+        SavedSearch search = new SavedSearch(userRepository.getReferenceById(userId), request.getName(),
+                writeCriteria(criteria));
+        SavedSearch saved = savedSearchRepository.save(search);
+        afterCommit(() -> updateIndex(saved.getId(), criteria));
+        cacheInvalidationService.publish(CacheInvalidationService.EntityType.SAVED_SEARCH, saved.getId());
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void deleteSavedSearch(Long userId, Long savedSearchId) {
+        SavedSearch search = savedSearchRepository.findById(savedSearchId)
+                .filter(s -> s.getUser().getId().equals(userId))
+                .orElseThrow(() -> new SavedSearchNotFoundException("Saved search not found with id: " + savedSearchId));
+
+        alertRepository.deleteBySavedSearchId(savedSearchId);
+        savedSearchRepository.delete(search);
+        afterCommit(() -> updateIndex(savedSearchId, null));
+        cacheInvalidationService.publish(CacheInvalidationService.EntityType.SAVED_SEARCH, savedSearchId);
+    }
+
+    // Called from the listing write transaction, so alerts commit or roll back with the listings
+    @Transactional
+    public int recordMatches(Collection<Listing> listings) {
+        SavedSearchIndex current = index;
+        if (current.size() == 0) {
+            return 0;
+        }
+
+        Map<Long, List<String>> zpidsBySearch = new HashMap<>();
+        for (Listing listing : listings) {
+            current.match(listing, savedSearchId ->
+                    zpidsBySearch.computeIfAbsent(savedSearchId, id -> new ArrayList<>()).add(listing.getZpid()));
+        }
+        if (zpidsBySearch.isEmpty()) {
+            return 0;
+        }
+
+        // Skips searches deleted through another instance since the index was last refreshed
+        LocalDateTime now = LocalDateTime.now();
+        int recorded = 0;
+        for (Long savedSearchId : savedSearchRepository.findExistingIds(zpidsBySearch.keySet())) {
+            for (String zpid : zpidsBySearch.get(savedSearchId)) {
+                recorded += alertRepository.insertIfAbsent(savedSearchId, zpid, now);
+            }
+        }
+        logger.debug("Recorded {} saved search alerts for {} listings", recorded, listings.size());
+        return recorded;
+    }
+
+    // One email per user covering every search with new matches; alerts are removed once sent,
+    // and kept for the next run if the mail server fails
+    @Scheduled(fixedDelayString = "${app.saved-search.digest-interval:1h}",
+               initialDelayString = "${app.saved-search.digest-interval:1h}")
+    public void sendDigests() {
+        int emails = 0;
+        while (true) {
+            List<SavedSearchAlert> pending = alertRepository.findPending(PageRequest.of(0, DIGEST_BATCH_SIZE));
+            if (pending.isEmpty()) {
+                break;
+            }
+
+            Map<Long, List<SavedSearchAlert>> alertsByUser = new LinkedHashMap<>();
+            for (SavedSearchAlert alert : pending) {
+                alertsByUser.computeIfAbsent(alert.getSavedSearch().getUser().getId(), id -> new ArrayList<>()).add(alert);
+            }
+            // The last user may continue into the next batch; send theirs then, in one email
+            if (pending.size() == DIGEST_BATCH_SIZE && alertsByUser.size() > 1) {
+                alertsByUser.remove(pending.get(pending.size() - 1).getSavedSearch().getUser().getId());
+            }
+
+            Map<String, Listing> listings = new HashMap<>();
+            for (Listing listing : listingRepository.findAllById(zpids(alertsByUser.values()))) {
+                listings.put(listing.getZpid(), listing);
+            }
+
+            List<Long> handled = new ArrayList<>();
+            boolean mailFailed = false;
+            for (List<SavedSearchAlert> alerts : alertsByUser.values()) {
+                User user = alerts.get(0).getSavedSearch().getUser();
+                if (user.isEnabled()) {
+                    try {
+                        if (sendDigest(user, alerts, listings)) {
+                            emails++;
+                        }
+                    } catch (Exception e) {
+                        logger.error("Failed to send saved search digest to user {}: {}", user.getId(), e.getMessage());
+                        mailFailed = true;
+                        break;
+                    }
+                }
+                alerts.forEach(alert -> handled.add(alert.getId()));
+            }
+
+            transactionTemplate.executeWithoutResult(status -> alertRepository.deleteByIdIn(handled));
+            if (mailFailed) {
+                break;
+            }
+        }
+        if (emails > 0) {
+            logger.info("Sent {} saved search digest emails", emails);
+        }
+    }
+
+    private boolean sendDigest(User user, List<SavedSearchAlert> alerts, Map<String, Listing> listings) throws Exception {
+        Map<Long, List<Listing>> matchesBySearch = new LinkedHashMap<>();
+        Map<Long, String> searchNames = new HashMap<>();
+        int total = 0;
+        for (SavedSearchAlert alert : alerts) {
+            // Listings deleted since they matched are left out
+            Listing listing = listings.get(alert.getListingZpid());
+            if (listing != null) {
+                SavedSearch search = alert.getSavedSearch();
+                searchNames.put(search.getId(), search.getName());
+                matchesBySearch.computeIfAbsent(search.getId(), id -> new ArrayList<>()).add(listing);
+                total++;
+            }
+        }
+        if (total == 0) {
+            return false;
+        }
+
+        String subject = total == 1 ? "1 new listing matches your saved searches"
+                : total + " new listings match your saved searches";
+        emailService.sendSavedSearchDigest(user.getEmail(), subject, digestHtml(searchNames, matchesBySearch));
+        return true;
+    }
+
+    private static String digestHtml(Map<Long, String> searchNames, Map<Long, List<Listing>> matchesBySearch) {
+        StringBuilder html = new StringBuilder()
+                .append("<html>")
+                .append("<body style=\"font-family: Arial, sans-serif;\">")
+                .append("<div style=\"background-color: #f5f5f5; padding: 20px;\">")
+                .append("<h2 style=\"color: #333;\">New listings for your saved searches</h2>");
+        matchesBySearch.forEach((searchId, matches) -> {
+            html.append("<div style=\"background-color: #fff; padding: 20px; margin-bottom: 16px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">")
+                    .append("<h3 style=\"color: #333;\">").append(HtmlUtils.htmlEscape(searchNames.get(searchId))).append("</h3>")
+                    .append("<ul style=\"font-size: 16px; padding-left: 20px;\">");
+            for (Listing listing : matches.subList(0, Math.min(matches.size(), MAX_LISTINGS_PER_SEARCH))) {
+                html.append("<li>").append(listingSummary(listing)).append("</li>");
+            }
+            html.append("</ul>");
+            if (matches.size() > MAX_LISTINGS_PER_SEARCH) {
+                html.append("<p style=\"color: #666;\">and ").append(matches.size() - MAX_LISTINGS_PER_SEARCH).append(" more</p>");
+            }
+            html.append("</div>");
+        });
+        return html.append("</div></body></html>").toString();
+    }
+
+    private static String listingSummary(Listing listing) {
+        StringBuilder summary = new StringBuilder(HtmlUtils.htmlEscape(listing.getAddress()));
+        if (listing.getPrice() != null) {
+            summary.append(" &middot; $").append(listing.getPrice().stripTrailingZeros().toPlainString());
+        }
+        if (listing.getBeds() != null) {
+            summary.append(" &middot; ").append(listing.getBeds()).append(" bd");
+        }
+        if (listing.getBaths() != null) {
+            summary.append(" &middot; ").append(listing.getBaths()).append(" ba");
+        }
+        if (listing.getDetailUrl() != null) {
+            summary.append(" &middot; <a href=\"").append(HtmlUtils.htmlEscape(listing.getDetailUrl()))
+                    .append("\" style=\"color: #007bff;\">View</a>");
+        }
+        return summary.toString();
+    }
+
+    private static List<String> zpids(Collection<List<SavedSearchAlert>> alertsByUser) {
+        List<String> zpids = new ArrayList<>();
+        alertsByUser.forEach(alerts -> alerts.forEach(alert -> zpids.add(alert.getListingZpid())));
+        return zpids;
+    }
+
+    private SavedSearchResponseDTO toDTO(SavedSearch search) {
+        return new SavedSearchResponseDTO(search.getId(), search.getName(), parseCriteria(search.getCriteria()),
+                search.getCreatedAt());
+    }
+
+    private String writeCriteria(ListingFilterCriteriaDTO criteria) {
+        try {
+            return objectMapper.writeValueAsString(criteria);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unwritable saved search criteria", e);
+        }
+    }
+
+    private ListingFilterCriteriaDTO parseCriteria(String criteria) {
+        try {
+            return objectMapper.readValue(criteria, ListingFilterCriteriaDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable saved search criteria", e);
+        }
+    }
+
+    // The index only sees searches once they are committed
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
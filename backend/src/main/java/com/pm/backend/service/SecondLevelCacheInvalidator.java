@@ -0,0 +1,33 @@
+package com.pm.backend.service;
+
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+
+// Evicts second-level cache entries another instance has changed. Writes made here update the local
+// regions as they commit.
+@Component
+public class SecondLevelCacheInvalidator implements CacheInvalidationService.Handler {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void invalidate(CacheInvalidationService.EntityType type, String id) {
+        switch (type) {
+            case LISTING -> entityManagerFactory.getCache().evict(Listing.class, id);
+            // A user's email never changes, so the cached email -> id mapping stays valid
+            case USER -> entityManagerFactory.getCache().evict(User.class, Long.valueOf(id));
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
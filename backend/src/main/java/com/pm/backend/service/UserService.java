@@ -1,22 +1,54 @@
 package com.pm.backend.service;
 
+import com.pm.backend.dto.UserPageResponseDTO;
+import com.pm.backend.dto.UserResponseDTO;
 import com.pm.backend.model.User;
 import com.pm.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class UserService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, EntityManager entityManager) {
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    // Natural-id lookup: email -> id and the user itself both come from the second-level cache once
+    // warm, so authenticating a request doesn't touch the database (or borrow a connection)
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
     }
 
-    public List<User> allUsers() {
-        List<User> users = userRepository.findAll();
-        userRepository.findAll().forEach(users::add);
-        return users;
+    @Transactional(readOnly = true)
+    public UserPageResponseDTO getUsers(Long after, int size, Boolean enabled,
+                                        LocalDateTime createdFrom, LocalDateTime createdTo) {
+        // A missing or invalid size gets the default, an oversized one the maximum
+        size = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        long afterId = after != null ? after : 0L;
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<UserResponseDTO> users = userRepository.findUserPage(afterId, enabled, createdFrom, createdTo, Limit.of(size + 1));
+        boolean hasMore = users.size() > size;
+        if (hasMore) {
+            users = users.subList(0, size);
+        }
+
+        Long nextCursor = hasMore ? users.get(users.size() - 1).getId() : null;
+        return new UserPageResponseDTO(users, nextCursor, hasMore);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.domain.Specification;
 import jakarta.persistence.criteria.Predicate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class ListingSpecification {
 
@@ -57,7 +58,86 @@ public class ListingSpecification {
                 ));
             }
 
+            // Amenity filtering on the typed columns, no JSON parsing involved
+            if (filters.getHasAirConditioning() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("hasAirConditioning"), filters.getHasAirConditioning()));
+            }
+            if (filters.getHasFireplace() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("hasFireplace"), filters.getHasFireplace()));
+            }
+            if (filters.getHasPool() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("hasPool"), filters.getHasPool()));
+            }
+            if (filters.getHasSpa() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("hasSpa"), filters.getHasSpa()));
+            }
+
+            // Variable data type filtering
+            if (filters.getVariableDataTypes() != null && !filters.getVariableDataTypes().isEmpty()) {
+                predicates.add(root.get("variableDataType").in(filters.getVariableDataTypes()));
+            }
+
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    // In-memory equivalent of withFilters for a single listing, used to match saved searches on write.
+    // Keep the two in step: a null listing value never satisfies a filter, as with SQL comparisons.
+    public static boolean matches(ListingFilterCriteriaDTO filters, Listing listing) {
+        if (filters.getMinPrice() != null && (listing.getPrice() == null || listing.getPrice().compareTo(filters.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (filters.getMaxPrice() != null && (listing.getPrice() == null || listing.getPrice().compareTo(filters.getMaxPrice()) > 0)) {
+            return false;
+        }
+        if (filters.getMinArea() != null && (listing.getArea() == null || listing.getArea() < filters.getMinArea())) {
+            return false;
+        }
+        if (filters.getMaxArea() != null && (listing.getArea() == null || listing.getArea() > filters.getMaxArea())) {
+            return false;
+        }
+        if (!matchesAny(filters.getCities(), listing.getAddressCity())
+                || !matchesAny(filters.getZipCodes(), listing.getAddressZipcode())
+                || !matchesAny(filters.getVariableDataTypes(), listing.getVariableDataType())) {
+            return false;
+        }
+        if (!matchesValue(filters.getBeds(), listing.getBeds()) || !matchesValue(filters.getBaths(), listing.getBaths())) {
+            return false;
+        }
+        if (filters.getAvailableBy() != null && listing.getAvailabilityDate() != null
+                && listing.getAvailabilityDate().isAfter(filters.getAvailableBy())) {
+            return false;
+        }
+        return matchesValue(filters.getHasAirConditioning(), listing.getHasAirConditioning())
+                && matchesValue(filters.getHasFireplace(), listing.getHasFireplace())
+                && matchesValue(filters.getHasPool(), listing.getHasPool())
+                && matchesValue(filters.getHasSpa(), listing.getHasSpa());
+    }
+
+    // A detached copy of just the fields matches reads, taken before an update changes the listing
+    public static Listing filteredFields(Listing listing) {
+        Listing copy = new Listing();
+        copy.setZpid(listing.getZpid());
+        copy.setPrice(listing.getPrice());
+        copy.setArea(listing.getArea());
+        copy.setAddressCity(listing.getAddressCity());
+        copy.setAddressZipcode(listing.getAddressZipcode());
+        copy.setVariableDataType(listing.getVariableDataType());
+        copy.setBeds(listing.getBeds());
+        copy.setBaths(listing.getBaths());
+        copy.setAvailabilityDate(listing.getAvailabilityDate());
+        copy.setHasAirConditioning(listing.getHasAirConditioning());
+        copy.setHasFireplace(listing.getHasFireplace());
+        copy.setHasPool(listing.getHasPool());
+        copy.setHasSpa(listing.getHasSpa());
+        return copy;
+    }
+
+    private static boolean matchesAny(List<String> allowed, String value) {
+        return allowed == null || allowed.isEmpty() || (value != null && allowed.contains(value));
+    }
+
+    private static boolean matchesValue(Object required, Object value) {
+        return required == null || Objects.equals(required, value);
+    }
 }
@@ -0,0 +1,154 @@
+package com.pm.backend.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+// Immutable centered interval tree over closed [start, end] ranges. Each node keeps the intervals
+// containing its center twice, sorted by start and by end, so a stabbing query walks one root-to-leaf
+// path and stops scanning a node's list at the first interval that misses: O(log n + k) even when
+// many intervals share an open bound (a price filter with only a maximum).
+public final class IntervalIndex<T> {
+    private static final IntervalIndex<?> EMPTY = new IntervalIndex<>(null, 0);
+
+    private static final class Node {
+        final long center;
+        final long[] starts;
+        final Object[] byStart;
+        final long[] ends;
+        final Object[] byEnd;
+        Node left;
+        Node right;
+
+        Node(long center, long[] starts, Object[] byStart, long[] ends, Object[] byEnd) {
+            this.center = center;
+            this.starts = starts;
+            this.byStart = byStart;
+            this.ends = ends;
+            this.byEnd = byEnd;
+        }
+    }
+
+    private record Interval<T>(long start, long end, T value) {}
+
+    private final Node root;
+    private final int size;
+
+    private IntervalIndex(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalIndex<T> empty() {
+        return (IntervalIndex<T>) EMPTY;
+    }
+
+    // Empty ranges (start after end) contain no point and are left out
+    public static <T> IntervalIndex<T> of(Collection<T> values, ToLongFunction<T> start, ToLongFunction<T> end) {
+        List<Interval<T>> intervals = new ArrayList<>(values.size());
+        for (T value : values) {
+            long from = start.applyAsLong(value);
+            long to = end.applyAsLong(value);
+            if (from <= to) {
+                intervals.add(new Interval<>(from, to, value));
+            }
+        }
+        if (intervals.isEmpty()) {
+            return empty();
+        }
+        return new IntervalIndex<>(build(intervals), intervals.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        List<T> values = new ArrayList<>(size);
+        collect(root, value -> values.add((T) value));
+        return values;
+    }
+
+    // Calls the consumer for every interval containing the point
+    @SuppressWarnings("unchecked")
+    public void stab(long point, Consumer<? super T> consumer) {
+        Node node = root;
+        while (node != null) {
+            if (point < node.center) {
+                // Every interval here ends at or after the center, so only its start can miss
+                for (int i = 0; i < node.starts.length && node.starts[i] <= point; i++) {
+                    consumer.accept((T) node.byStart[i]);
+                }
+                node = node.left;
+            } else if (point > node.center) {
+                for (int i = 0; i < node.ends.length && node.ends[i] >= point; i++) {
+                    consumer.accept((T) node.byEnd[i]);
+                }
+                node = node.right;
+            } else {
+                for (Object value : node.byStart) {
+                    consumer.accept((T) value);
+                }
+                return;
+            }
+        }
+    }
+
+    // The median start as center keeps both sides to at most half the intervals
+    private static <T> Node build(List<Interval<T>> intervals) {
+        if (intervals.isEmpty()) {
+            return null;
+        }
+        long[] sortedStarts = intervals.stream().mapToLong(Interval::start).sorted().toArray();
+        long center = sortedStarts[sortedStarts.length / 2];
+
+        List<Interval<T>> left = new ArrayList<>();
+        List<Interval<T>> right = new ArrayList<>();
+        List<Interval<T>> containing = new ArrayList<>();
+        for (Interval<T> interval : intervals) {
+            if (interval.end() < center) {
+                left.add(interval);
+            } else if (interval.start() > center) {
+                right.add(interval);
+            } else {
+                containing.add(interval);
+            }
+        }
+
+        containing.sort(Comparator.comparingLong(Interval::start));
+        long[] starts = new long[containing.size()];
+        Object[] byStart = new Object[containing.size()];
+        for (int i = 0; i < containing.size(); i++) {
+            starts[i] = containing.get(i).start();
+            byStart[i] = containing.get(i).value();
+        }
+        containing.sort(Comparator.comparingLong(Interval<T>::end).reversed());
+        long[] ends = new long[containing.size()];
+        Object[] byEnd = new Object[containing.size()];
+        for (int i = 0; i < containing.size(); i++) {
+            ends[i] = containing.get(i).end();
+            byEnd[i] = containing.get(i).value();
+        }
+
+        Node node = new Node(center, starts, byStart, ends, byEnd);
+        node.left = build(left);
+        node.right = build(right);
+        return node;
+    }
+
+    private static void collect(Node node, Consumer<Object> consumer) {
+        if (node == null) {
+            return;
+        }
+        for (Object value : node.byStart) {
+            consumer.accept(value);
+        }
+        collect(node.left, consumer);
+        collect(node.right, consumer);
+    }
+}
@@ -0,0 +1,601 @@
+package com.pm.backend.util;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+
+// Immutable column snapshot of the listing catalog for answering paged searches in memory. Filtered
+// fields are primitive columns (prices in cents, string fields as codes into a sorted dictionary) and
+// a search ANDs one column at a time into a selection bitmap, then picks out only the page window:
+// - price, area, beds, createdAt and updatedAt have permutations presorted at build time, which are
+//   walked in order until the window is filled
+// - other sorts, or a walk that would visit most of the catalog to find a handful of matches, use a
+//   bounded heap holding the best offset + limit matches
+// The match set itself is never sorted. Keys are packed into longs with the row number, so heap
+// comparisons are single primitive compares. Rows are in zpid order, which makes the row number the
+// tie-breaker and a zpid sort a plain walk. Missing values sort last ascending and first descending,
+// as in Postgres. City and state sort in String order, i.e. by UTF-16 code unit like the C collation;
+// on a database with a linguistic collation such as en_US.UTF-8, case and punctuation can order those
+// two sorts differently from the database fallback unless their columns use COLLATE "C".
+//
+// Rows are split into fixed-size segments that are filtered, and heap-selected, in parallel on the
+// given pool; the partial top-K lists are merged at the end. Each segment records the smallest and
+// largest price and area it holds, so a range missing them skips the segment and one covering them
+// skips the column. Numeric ranges and equalities run on the given PredicateKernels.
+public final class ListingSearchIndex {
+    // Missing numbers are stored as the largest value, so they sort last and fall outside any range
+    private static final int NULL_INT = Integer.MAX_VALUE;
+    private static final long NULL_LONG = Long.MAX_VALUE;
+    // A missing availability date passes the availableBy filter, so it's stored as the smallest value
+    private static final long NULL_AVAILABILITY = Long.MIN_VALUE;
+    private static final byte NULL_BOOLEAN = 2;
+
+    // A multiple of 64, so segments own whole bitmap words
+    private static final int SEGMENT_ROWS = 16_384;
+    private static final int SEGMENT_WORDS = SEGMENT_ROWS / 64;
+
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(NULL_LONG - 1);
+
+    // The columns one search reads, as loaded from the database
+    public record Row(String zpid, BigDecimal price, Integer area, Integer beds, Integer baths, String city,
+                      String state, String zipcode, String variableDataType, LocalDateTime availabilityDate,
+                      Boolean hasAirConditioning, Boolean hasFireplace, Boolean hasPool, Boolean hasSpa,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {}
+
+    // The listing properties ListingService sorts by
+    public enum SortField {
+        ZPID("zpid"),
+        PRICE("price"),
+        BEDS("beds"),
+        BATHS("baths"),
+        AREA("area"),
+        CITY("addressCity"),
+        STATE("addressState"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public static SortField of(String property) {
+            for (SortField field : values()) {
+                if (field.property.equals(property)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+    }
+
+    // A search's filters as column bounds and dictionary flags, worked out once for every segment.
+    // Ranges exclude the missing-value sentinel; null fields and flags are unfiltered.
+    private record Query(boolean byPrice, long minPrice, long maxPrice, boolean byArea, int minArea, int maxArea,
+                         Integer beds, Integer baths, Long availableBy, byte[] cities, byte[] zipcodes,
+                         byte[] variableDataTypes, Boolean airConditioning, Boolean fireplace, Boolean pool, Boolean spa) {}
+
+    // One page of zpids in order, and how many listings matched in all
+    public record Hits(List<String> zpids, int total) {}
+
+    // Distinct values in String order (not the database's collation); a row's code is its value's
+    // position, or values.length when missing
+    private record Dictionary(String[] values, int[] codes) {
+        static Dictionary of(String[] column) {
+            TreeSet<String> distinct = new TreeSet<>();
+            for (String value : column) {
+                if (value != null) {
+                    distinct.add(value);
+                }
+            }
+            String[] values = distinct.toArray(new String[0]);
+            int[] codes = new int[column.length];
+            for (int row = 0; row < column.length; row++) {
+                codes[row] = column[row] != null ? Arrays.binarySearch(values, column[row]) : values.length;
+            }
+            return new Dictionary(values, codes);
+        }
+
+        // 1 at the codes of the given values; the missing-value code is never allowed
+        byte[] allowed(List<String> wanted) {
+            byte[] allowed = new byte[values.length + 1];
+            for (String value : wanted) {
+                int code = value != null ? Arrays.binarySearch(values, value) : -1;
+                if (code >= 0) {
+                    allowed[code] = 1;
+                }
+            }
+            return allowed;
+        }
+    }
+
+    private final int size;
+    private final String[] zpids;
+    private final long[] price;
+    private final int[] area;
+    private final int[] beds;
+    private final int[] baths;
+    private final long[] availability;
+    private final byte[] airConditioning;
+    private final byte[] fireplace;
+    private final byte[] pool;
+    private final byte[] spa;
+    private final Dictionary cities;
+    private final Dictionary states;
+    private final Dictionary zipcodes;
+    private final Dictionary variableDataTypes;
+
+    // By SortField ordinal: rows in ascending order, and each row's position in that order
+    private final int[][] presorted = new int[SortField.values().length][];
+    private final int[][] ranks = new int[SortField.values().length][];
+
+    // Per segment, over every row including the missing ones (which are stored as the largest value)
+    private final int segments;
+    private final long[] segmentMinPrice;
+    private final long[] segmentMaxPrice;
+    private final int[] segmentMinArea;
+    private final int[] segmentMaxArea;
+
+    // Null to scan on the calling thread
+    private final ForkJoinPool workers;
+    private final PredicateKernels kernels;
+
+    // A task that splits the segments in halves until each holds one
+    private final class SegmentTask<T> extends RecursiveTask<T> {
+        private final int from;
+        private final int to;
+        private final IntFunction<T> leaf;
+        private final BinaryOperator<T> merge;
+
+        SegmentTask(int from, int to, IntFunction<T> leaf, BinaryOperator<T> merge) {
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.merge = merge;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from == 1) {
+                return leaf.apply(from);
+            }
+            int middle = (from + to) >>> 1;
+            SegmentTask<T> left = new SegmentTask<>(from, middle, leaf, merge);
+            left.fork();
+            T right = new SegmentTask<>(middle, to, leaf, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+
+    public ListingSearchIndex(List<Row> rows, ForkJoinPool workers, PredicateKernels kernels) {
+        this.workers = workers;
+        this.kernels = kernels;
+        List<Row> ordered = new ArrayList<>(rows);
+        ordered.sort(Comparator.comparing(Row::zpid));
+        size = ordered.size();
+
+        zpids = new String[size];
+        price = new long[size];
+        area = new int[size];
+        beds = new int[size];
+        baths = new int[size];
+        availability = new long[size];
+        airConditioning = new byte[size];
+        fireplace = new byte[size];
+        pool = new byte[size];
+        spa = new byte[size];
+        long[] createdAt = new long[size];
+        long[] updatedAt = new long[size];
+        String[] city = new String[size];
+        String[] state = new String[size];
+        String[] zipcode = new String[size];
+        String[] variableDataType = new String[size];
+
+        for (int row = 0; row < size; row++) {
+            Row listing = ordered.get(row);
+            zpids[row] = listing.zpid();
+            price[row] = listing.price() != null
+                    ? listing.price().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : NULL_LONG;
+            area[row] = intValue(listing.area());
+            beds[row] = intValue(listing.beds());
+            baths[row] = intValue(listing.baths());
+            availability[row] = listing.availabilityDate() != null ? micros(listing.availabilityDate()) : NULL_AVAILABILITY;
+            airConditioning[row] = booleanValue(listing.hasAirConditioning());
+            fireplace[row] = booleanValue(listing.hasFireplace());
+            pool[row] = booleanValue(listing.hasPool());
+            spa[row] = booleanValue(listing.hasSpa());
+            createdAt[row] = listing.createdAt() != null ? micros(listing.createdAt()) : NULL_LONG;
+            updatedAt[row] = listing.updatedAt() != null ? micros(listing.updatedAt()) : NULL_LONG;
+            city[row] = listing.city();
+            state[row] = listing.state();
+            zipcode[row] = listing.zipcode();
+            variableDataType[row] = listing.variableDataType();
+        }
+
+        cities = Dictionary.of(city);
+        states = Dictionary.of(state);
+        zipcodes = Dictionary.of(zipcode);
+        variableDataTypes = Dictionary.of(variableDataType);
+
+        presort(SortField.PRICE, price);
+        presort(SortField.AREA, widen(area));
+        presort(SortField.BEDS, widen(beds));
+        presort(SortField.CREATED_AT, createdAt);
+        presort(SortField.UPDATED_AT, updatedAt);
+
+        segments = Math.max(1, (size + SEGMENT_ROWS - 1) / SEGMENT_ROWS);
+        segmentMinPrice = new long[segments];
+        segmentMaxPrice = new long[segments];
+        segmentMinArea = new int[segments];
+        segmentMaxArea = new int[segments];
+        Arrays.fill(segmentMinPrice, Long.MAX_VALUE);
+        Arrays.fill(segmentMaxPrice, Long.MIN_VALUE);
+        Arrays.fill(segmentMinArea, Integer.MAX_VALUE);
+        Arrays.fill(segmentMaxArea, Integer.MIN_VALUE);
+        for (int row = 0; row < size; row++) {
+            int segment = row / SEGMENT_ROWS;
+            segmentMinPrice[segment] = Math.min(segmentMinPrice[segment], price[row]);
+            segmentMaxPrice[segment] = Math.max(segmentMaxPrice[segment], price[row]);
+            segmentMinArea[segment] = Math.min(segmentMinArea[segment], area[row]);
+            segmentMaxArea[segment] = Math.max(segmentMaxArea[segment], area[row]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Hits search(ListingFilterCriteriaDTO filters, SortField sort, boolean descending, int offset, int limit) {
+        Query query = filters.hasFilters() ? compile(filters) : null;
+        long[] selection = query != null ? new long[(size + 63) >>> 6] : null;
+        int total = query != null ? overSegments(segment -> select(query, selection, segment), Integer::sum) : size;
+        int window = (int) Math.min((long) offset + limit, total);
+        if (offset >= window) {
+            return new Hits(List.of(), total);
+        }
+
+        int[] permutation = presorted[sort.ordinal()];
+        boolean walkable = permutation != null || sort == SortField.ZPID;
+        int[] rows;
+        if (walkable && walkIsCheaper(window, total)) {
+            rows = walk(permutation, descending, selection, offset, window);
+        } else {
+            int[] orderKeys = orderKeys(sort);
+            long[] best = overSegments(segment -> topK(orderKeys, descending, selection, segment, window),
+                    (left, right) -> merge(left, right, window));
+            rows = new int[best.length - offset];
+            for (int i = offset; i < best.length; i++) {
+                rows[i - offset] = (int) (descending ? ~best[i] : best[i]);
+            }
+        }
+
+        List<String> page = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            page.add(zpids[row]);
+        }
+        return new Hits(page, total);
+    }
+
+    // A walk visits about window * size / total rows in random order; the heap scans the bitmap and
+    // offers every match, mostly rejected on one compare. Random access is weighted as four times dearer.
+    private boolean walkIsCheaper(int window, int total) {
+        return 4L * window * size / total <= (long) total + size / 64;
+    }
+
+    private <T> T overSegments(IntFunction<T> leaf, BinaryOperator<T> merge) {
+        if (workers != null && segments > 1) {
+            return workers.invoke(new SegmentTask<>(0, segments, leaf, merge));
+        }
+        T result = leaf.apply(0);
+        for (int segment = 1; segment < segments; segment++) {
+            result = merge.apply(result, leaf.apply(segment));
+        }
+        return result;
+    }
+
+    private Query compile(ListingFilterCriteriaDTO filters) {
+        boolean byPrice = filters.getMinPrice() != null || filters.getMaxPrice() != null;
+        boolean byArea = filters.getMinArea() != null || filters.getMaxArea() != null;
+        return new Query(byPrice,
+                filters.getMinPrice() != null ? cents(filters.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE,
+                filters.getMaxPrice() != null ? cents(filters.getMaxPrice(), RoundingMode.FLOOR) : NULL_LONG - 1,
+                byArea,
+                filters.getMinArea() != null ? filters.getMinArea() : Integer.MIN_VALUE,
+                filters.getMaxArea() != null ? Math.min(filters.getMaxArea(), NULL_INT - 1) : NULL_INT - 1,
+                filters.getBeds(), filters.getBaths(),
+                filters.getAvailableBy() != null ? micros(filters.getAvailableBy()) : null,
+                allowed(cities, filters.getCities()), allowed(zipcodes, filters.getZipCodes()),
+                allowed(variableDataTypes, filters.getVariableDataTypes()),
+                filters.getHasAirConditioning(), filters.getHasFireplace(), filters.getHasPool(), filters.getHasSpa());
+    }
+
+    private static byte[] allowed(Dictionary dictionary, List<String> values) {
+        return values != null && !values.isEmpty() ? dictionary.allowed(values) : null;
+    }
+
+    // Fills the segment's words of the selection and counts its matches
+    private int select(Query query, long[] selection, int segment) {
+        int from = segment * SEGMENT_WORDS;
+        int to = Math.min(from + SEGMENT_WORDS, selection.length);
+        if (from >= to) {
+            return 0;
+        }
+        Arrays.fill(selection, from, to, -1L);
+        if (to == selection.length && size % 64 != 0) {
+            selection[to - 1] = -1L >>> (64 - size % 64);
+        }
+
+        // Segment bounds decide a range outright when it misses them or takes them all in
+        if (query.byPrice()) {
+            if (query.maxPrice() < segmentMinPrice[segment] || query.minPrice() > segmentMaxPrice[segment]) {
+                Arrays.fill(selection, from, to, 0);
+                return 0;
+            }
+            if (query.minPrice() > segmentMinPrice[segment] || query.maxPrice() < segmentMaxPrice[segment]) {
+                kernels.andRange(price, query.minPrice(), query.maxPrice(), selection, from, to);
+            }
+        }
+        if (query.byArea()) {
+            if (query.maxArea() < segmentMinArea[segment] || query.minArea() > segmentMaxArea[segment]) {
+                Arrays.fill(selection, from, to, 0);
+                return 0;
+            }
+            if (query.minArea() > segmentMinArea[segment] || query.maxArea() < segmentMaxArea[segment]) {
+                kernels.andRange(area, query.minArea(), query.maxArea(), selection, from, to);
+            }
+        }
+        if (query.beds() != null) {
+            andEqual(beds, query.beds(), selection, from, to);
+        }
+        if (query.baths() != null) {
+            andEqual(baths, query.baths(), selection, from, to);
+        }
+        if (query.availableBy() != null) {
+            kernels.andRange(availability, Long.MIN_VALUE, query.availableBy(), selection, from, to);
+        }
+        if (query.cities() != null) {
+            andIn(cities.codes(), query.cities(), selection, from, to);
+        }
+        if (query.zipcodes() != null) {
+            andIn(zipcodes.codes(), query.zipcodes(), selection, from, to);
+        }
+        if (query.variableDataTypes() != null) {
+            andIn(variableDataTypes.codes(), query.variableDataTypes(), selection, from, to);
+        }
+        andEqual(airConditioning, query.airConditioning(), selection, from, to);
+        andEqual(fireplace, query.fireplace(), selection, from, to);
+        andEqual(pool, query.pool(), selection, from, to);
+        andEqual(spa, query.spa(), selection, from, to);
+
+        int count = 0;
+        for (int word = from; word < to; word++) {
+            count += Long.bitCount(selection[word]);
+        }
+        return count;
+    }
+
+    private int[] walk(int[] permutation, boolean descending, long[] selection, int offset, int window) {
+        int[] rows = new int[window - offset];
+        int found = 0;
+        for (int i = 0; found < window; i++) {
+            int position = descending ? size - 1 - i : i;
+            int row = permutation != null ? permutation[position] : position;
+            if (selection == null || (selection[row >>> 6] & (1L << row)) != 0) {
+                if (found >= offset) {
+                    rows[found - offset] = row;
+                }
+                found++;
+            }
+        }
+        return rows;
+    }
+
+    // The segment's window smallest keys in order, kept in a max-heap while scanning
+    private long[] topK(int[] orderKeys, boolean descending, long[] selection, int segment, int window) {
+        int fromRow = segment * SEGMENT_ROWS;
+        int toRow = Math.min(fromRow + SEGMENT_ROWS, size);
+        long[] heap = new long[Math.min(window, Math.max(0, toRow - fromRow))];
+        int count = 0;
+        for (int word = fromRow >>> 6; word < (toRow + 63) >>> 6; word++) {
+            long bits = selection != null ? selection[word] : -1L;
+            while (bits != 0) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (row >= toRow) {
+                    break;
+                }
+                bits &= bits - 1;
+
+                long key = orderKey(orderKeys, row, descending);
+                if (count < heap.length) {
+                    heap[count] = key;
+                    siftUp(heap, count++);
+                } else if (key < heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, heap.length);
+                }
+            }
+        }
+        long[] best = Arrays.copyOf(heap, count);
+        Arrays.sort(best);
+        return best;
+    }
+
+    // The window smallest keys of two ordered lists
+    private static long[] merge(long[] left, long[] right, int window) {
+        long[] merged = new long[Math.min(window, left.length + right.length)];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            merged[k] = j >= right.length || (i < left.length && left[i] < right[j]) ? left[i++] : right[j++];
+        }
+        return merged;
+    }
+
+    // The sort value in the high half and the row in the low half; inverted to sort descending
+    private static long orderKey(int[] orderKeys, int row, boolean descending) {
+        long key = orderKeys != null ? ((long) orderKeys[row] << 32) | row : row;
+        return descending ? ~key : key;
+    }
+
+    // Null for a zpid sort, where the row number alone is the order
+    private int[] orderKeys(SortField sort) {
+        return switch (sort) {
+            case ZPID -> null;
+            case BATHS -> baths;
+            case CITY -> cities.codes();
+            case STATE -> states.codes();
+            default -> ranks[sort.ordinal()];
+        };
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    private void presort(SortField field, long[] keys) {
+        // Keys are replaced by their rank among the distinct values, so key and row pack into one long
+        long[] distinct = keys.clone();
+        Arrays.sort(distinct);
+        int distinctCount = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+
+        long[] packed = new long[size];
+        for (int row = 0; row < size; row++) {
+            packed[row] = ((long) Arrays.binarySearch(distinct, 0, distinctCount, keys[row]) << 32) | row;
+        }
+        Arrays.parallelSort(packed);
+
+        int[] permutation = new int[size];
+        int[] rank = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = (int) packed[i];
+            rank[permutation[i]] = i;
+        }
+        presorted[field.ordinal()] = permutation;
+        ranks[field.ordinal()] = rank;
+    }
+
+    private void andEqual(int[] column, int wanted, long[] selection, int from, int to) {
+        if (wanted == NULL_INT) {
+            Arrays.fill(selection, from, to, 0);
+            return;
+        }
+        kernels.andEqual(column, wanted, selection, from, to);
+    }
+
+    // Branch-free: the row's bit comes from arithmetic, so unpredictable data costs no mispredictions
+    private void andEqual(byte[] column, Boolean wanted, long[] selection, int from, int to) {
+        if (wanted == null) {
+            return;
+        }
+        byte value = booleanValue(wanted);
+        for (int word = from; word < to; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            int end = Math.min(64, size - base);
+            long mask = 0;
+            for (int i = 0; i < end; i++) {
+                mask |= (long) (((column[base + i] ^ value) - 1) >>> 31) << i;
+            }
+            selection[word] = bits & mask;
+        }
+    }
+
+    private void andIn(int[] codes, byte[] allowed, long[] selection, int from, int to) {
+        for (int word = from; word < to; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            int end = Math.min(64, size - base);
+            long mask = 0;
+            for (int i = 0; i < end; i++) {
+                mask |= (long) allowed[codes[base + i]] << i;
+            }
+            selection[word] = bits & mask;
+        }
+    }
+
+    private static int intValue(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static byte booleanValue(Boolean value) {
+        return value == null ? NULL_BOOLEAN : value ? (byte) 1 : (byte) 0;
+    }
+
+    private static long[] widen(int[] column) {
+        long[] widened = new long[column.length];
+        for (int i = 0; i < column.length; i++) {
+            widened[i] = column[i];
+        }
+        return widened;
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    // A bound in whole cents, rounded inwards; bounds beyond any stored price are clamped
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(MAX_CENTS) > 0) {
+            return NULL_LONG - 1;
+        }
+        if (cents.compareTo(MIN_CENTS) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.pm.backend.util;
+
+import java.util.Collection;
+
+// Immutable open-addressing set of primitive longs. Strings are stored as 64-bit hashes so
+// membership checks never box or compare strings; a false positive needs a full hash collision.
+public final class LongHashSet {
+    private static final LongHashSet EMPTY = new LongHashSet(new long[0]);
+
+    // 0 marks an empty slot, so a value hashing to 0 is remapped
+    private static final long EMPTY_SLOT = 0L;
+    private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+    private final long[] table;
+    private final int mask;
+    private final int size;
+
+    private LongHashSet(long[] values) {
+        int capacity = Integer.highestOneBit(Math.max(2, values.length * 2 - 1)) << 1;
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+
+        int count = 0;
+        for (long value : values) {
+            if (insert(normalize(value))) {
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    public static LongHashSet of(long... values) {
+        return values.length == 0 ? EMPTY : new LongHashSet(values);
+    }
+
+    public static LongHashSet ofStrings(Collection<String> values) {
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+        long[] hashes = new long[values.size()];
+        int i = 0;
+        for (String value : values) {
+            hashes[i++] = hash(value);
+        }
+        return new LongHashSet(hashes);
+    }
+
+    public boolean contains(long value) {
+        if (size == 0) {
+            return false;
+        }
+        long key = normalize(value);
+        int slot = (int) mix(key) & mask;
+        while (true) {
+            long current = table[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY_SLOT) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsString(String value) {
+        return value != null && contains(hash(value));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with a murmur3 mix
+    public static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private boolean insert(long key) {
+        int slot = (int) mix(key) & mask;
+        while (true) {
+            long current = table[slot];
+            if (current == key) {
+                return false;
+            }
+            if (current == EMPTY_SLOT) {
+                table[slot] = key;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static long normalize(long value) {
+        return value == EMPTY_SLOT ? ZERO_REPLACEMENT : value;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,86 @@
+package com.pm.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Raw deflate blocks for a pre-encoded JSON prefix, ended with a sync flush instead of a final block.
+// A complete gzip member is assembled per request by appending the variable tail (e.g. the saved flag)
+// as a final stored block, so the expensive part of compression happens once per cached body.
+public final class PrecompressedJson {
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+    private static final int MAX_STORED_BLOCK = 0xffff;
+
+    private final RawJson source;
+    private final byte[] deflated;
+
+    private PrecompressedJson(RawJson source, byte[] deflated) {
+        this.source = source;
+        this.deflated = deflated;
+    }
+
+    public static PrecompressedJson compress(RawJson source, int level) {
+        byte[] input = source.asUnquotedUTF8();
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            int count;
+            // SYNC_FLUSH leaves the stream byte-aligned and open, ready for another block
+            while ((count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+                out.write(buffer, 0, count);
+            }
+            return new PrecompressedJson(source, out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public int byteLength() {
+        return deflated.length;
+    }
+
+    // Size of the gzip member writeGzip produces for the given tail
+    public int gzipLength(RawJson tail) {
+        return GZIP_HEADER.length + deflated.length + 5 + tail.byteLength() + 8;
+    }
+
+    public void writeGzip(RawJson tail, OutputStream out) throws IOException {
+        byte[] prefix = source.asUnquotedUTF8();
+        byte[] suffix = tail.asUnquotedUTF8();
+        if (suffix.length > MAX_STORED_BLOCK) {
+            throw new IllegalArgumentException("Tail too large for a single stored block: " + suffix.length);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(prefix);
+        crc.update(suffix);
+
+        out.write(GZIP_HEADER);
+        out.write(deflated);
+
+        // Final stored block: BFINAL=1, BTYPE=00, then LEN and its one's complement
+        out.write(1);
+        writeShortLE(out, suffix.length);
+        writeShortLE(out, ~suffix.length);
+        out.write(suffix);
+
+        writeIntLE(out, (int) crc.getValue());
+        writeIntLE(out, prefix.length + suffix.length);
+    }
+
+    private static void writeShortLE(OutputStream out, int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+    }
+
+    private static void writeIntLE(OutputStream out, int value) throws IOException {
+        writeShortLE(out, value);
+        writeShortLE(out, value >>> 16);
+    }
+}
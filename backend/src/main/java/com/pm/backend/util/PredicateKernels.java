@@ -0,0 +1,26 @@
+package com.pm.backend.util;
+
+// The numeric filters of ListingSearchIndex: each ANDs a predicate over a column into a selection
+// bitmap, where bit i of word w stands for row 64 * w + i. Only words [from, to) are touched, words that
+// are already zero are skipped, and the last word may cover fewer than 64 rows.
+public interface PredicateKernels {
+    // min <= value <= max; nothing matches when min > max
+    void andRange(long[] column, long min, long max, long[] selection, int from, int to);
+
+    void andRange(int[] column, int min, int max, long[] selection, int from, int to);
+
+    default void andEqual(int[] column, int wanted, long[] selection, int from, int to) {
+        andRange(column, wanted, wanted, selection, from, to);
+    }
+
+    // SIMD kernels when asked for and the JVM can run them (started with --add-modules jdk.incubator.vector,
+    // on hardware with vector registers), otherwise the scalar ones. The vector class is only loaded here,
+    // once its module is known to be present.
+    static PredicateKernels create(boolean vectorized) {
+        if (vectorized && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && VectorPredicateKernels.isAccelerated()) {
+            return new VectorPredicateKernels();
+        }
+        return new ScalarPredicateKernels();
+    }
+}
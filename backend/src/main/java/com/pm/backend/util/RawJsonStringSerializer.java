@@ -0,0 +1,27 @@
+package com.pm.backend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Writes a stored JSON string through unescaped. Binary formats (CBOR/Smile) cannot embed raw JSON,
+// so there the string is parsed once and written as a tree instead.
+public class RawJsonStringSerializer extends StdSerializer<String> {
+    private static final ObjectMapper JSON_READER = new ObjectMapper();
+
+    public RawJsonStringSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (gen.canWriteBinaryNatively()) {
+            gen.writeTree(JSON_READER.readTree(value));
+        } else {
+            gen.writeRawValue(value);
+        }
+    }
+}
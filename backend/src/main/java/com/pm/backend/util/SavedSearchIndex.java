@@ -0,0 +1,243 @@
+package com.pm.backend.util;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.model.Listing;
+import com.pm.backend.specification.ListingSpecification;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+// Reverse index over saved searches (a "percolator"): rather than running every search against a
+// written listing, each search is filed under the (city, zipcode, beds, baths) values it requires,
+// with a wildcard for each one it leaves open. A listing probes the 16 keys made of its own value or
+// the wildcard per dimension, so it only meets searches whose discrete filters it already satisfies.
+// Within a key, searches with a price range sit in a price interval tree, those with only an area
+// range in an area tree. A candidate whose every filter is already enforced by its key and tree is a
+// match as found; the rest are checked in full with ListingSpecification.matches.
+// Lookups are lock-free; writers replace whole buckets.
+public class SavedSearchIndex {
+    // Cities x zipcodes a search may be filed under before the larger list is left to verification
+    private static final int MAX_KEY_FANOUT = 64;
+
+    private record Key(String city, String zipcode, Integer beds, Integer baths) {}
+
+    private record Entry(long id, ListingFilterCriteriaDTO criteria, long minPrice, long maxPrice, long minArea, long maxArea,
+                         boolean needsVerify) {
+        boolean hasPriceRange() {
+            return minPrice != Long.MIN_VALUE || maxPrice != Long.MAX_VALUE;
+        }
+
+        boolean hasAreaRange() {
+            return minArea != Long.MIN_VALUE || maxArea != Long.MAX_VALUE;
+        }
+    }
+
+    private record Bucket(IntervalIndex<Entry> byPrice, IntervalIndex<Entry> byArea, List<Entry> unbounded) {
+        static Bucket of(List<Entry> entries) {
+            List<Entry> priced = new ArrayList<>();
+            List<Entry> sized = new ArrayList<>();
+            List<Entry> unbounded = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (entry.hasPriceRange()) {
+                    priced.add(entry);
+                } else if (entry.hasAreaRange()) {
+                    sized.add(entry);
+                } else {
+                    unbounded.add(entry);
+                }
+            }
+            return new Bucket(IntervalIndex.of(priced, Entry::minPrice, Entry::maxPrice),
+                    IntervalIndex.of(sized, Entry::minArea, Entry::maxArea),
+                    List.copyOf(unbounded));
+        }
+
+        List<Entry> entries() {
+            List<Entry> entries = new ArrayList<>(byPrice.values());
+            entries.addAll(byArea.values());
+            entries.addAll(unbounded);
+            return entries;
+        }
+
+        boolean isEmpty() {
+            return byPrice.size() == 0 && byArea.size() == 0 && unbounded.isEmpty();
+        }
+    }
+
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Long, List<Key>> keysById = new ConcurrentHashMap<>();
+
+    public SavedSearchIndex() {}
+
+    // Builds every bucket once, for loading all saved searches at startup
+    public SavedSearchIndex(Map<Long, ListingFilterCriteriaDTO> searches) {
+        Map<Key, List<Entry>> entriesByKey = new HashMap<>();
+        searches.forEach((id, criteria) -> {
+            Entry entry = entry(id, criteria);
+            List<Key> keys = keysFor(criteria);
+            keysById.put(id, keys);
+            for (Key key : keys) {
+                entriesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+        });
+        entriesByKey.forEach((key, entries) -> buckets.put(key, Bucket.of(entries)));
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    public synchronized void put(long id, ListingFilterCriteriaDTO criteria) {
+        remove(id);
+        Entry entry = entry(id, criteria);
+        List<Key> keys = keysFor(criteria);
+        for (Key key : keys) {
+            buckets.compute(key, (k, bucket) -> {
+                List<Entry> entries = bucket == null ? new ArrayList<>() : bucket.entries();
+                entries.add(entry);
+                return Bucket.of(entries);
+            });
+        }
+        keysById.put(id, keys);
+    }
+
+    public synchronized void remove(long id) {
+        List<Key> keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            buckets.computeIfPresent(key, (k, bucket) -> {
+                List<Entry> entries = bucket.entries();
+                entries.removeIf(entry -> entry.id() == id);
+                Bucket updated = Bucket.of(entries);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    // Reports the id of every saved search the listing satisfies, each at most once
+    public void match(Listing listing, LongConsumer matches) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        String[] cities = withWildcard(listing.getAddressCity());
+        String[] zipcodes = withWildcard(listing.getAddressZipcode());
+        Integer[] beds = withWildcard(listing.getBeds());
+        Integer[] baths = withWildcard(listing.getBaths());
+        Long price = listing.getPrice() != null ? listing.getPrice().setScale(2, RoundingMode.FLOOR).unscaledValue().longValue() : null;
+        // A sub-cent price can fall inside a tree's outward-rounded bounds without satisfying them
+        boolean wholeCents = price == null || listing.getPrice().stripTrailingZeros().scale() <= 2;
+        Integer area = listing.getArea();
+
+        for (String city : cities) {
+            for (String zipcode : zipcodes) {
+                for (Integer bed : beds) {
+                    for (Integer bath : baths) {
+                        Bucket bucket = buckets.get(new Key(city, zipcode, bed, bath));
+                        if (bucket != null) {
+                            match(bucket, listing, price, wholeCents, area, matches);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void match(Bucket bucket, Listing listing, Long price, boolean wholeCents, Integer area, LongConsumer matches) {
+        // A listing without a price or area can't satisfy a range on it, so that tree is skipped outright
+        if (price != null) {
+            bucket.byPrice().stab(price, entry -> verify(entry, listing, !wholeCents, matches));
+        }
+        if (area != null) {
+            bucket.byArea().stab(area, entry -> verify(entry, listing, false, matches));
+        }
+        for (Entry entry : bucket.unbounded()) {
+            verify(entry, listing, false, matches);
+        }
+    }
+
+    private static void verify(Entry entry, Listing listing, boolean inexact, LongConsumer matches) {
+        if ((!entry.needsVerify() && !inexact) || ListingSpecification.matches(entry.criteria(), listing)) {
+            matches.accept(entry.id());
+        }
+    }
+
+    private static Entry entry(long id, ListingFilterCriteriaDTO criteria) {
+        // Bounds are rounded outwards to whole cents; the exact comparison happens in verify
+        return new Entry(id, criteria,
+                cents(criteria.getMinPrice(), RoundingMode.FLOOR, Long.MIN_VALUE),
+                cents(criteria.getMaxPrice(), RoundingMode.CEILING, Long.MAX_VALUE),
+                criteria.getMinArea() != null ? criteria.getMinArea() : Long.MIN_VALUE,
+                criteria.getMaxArea() != null ? criteria.getMaxArea() : Long.MAX_VALUE,
+                needsVerify(criteria));
+    }
+
+    // Whether a candidate can still fail a filter its key and interval tree don't enforce exactly
+    private static boolean needsVerify(ListingFilterCriteriaDTO criteria) {
+        boolean priced = criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+        boolean sized = criteria.getMinArea() != null || criteria.getMaxArea() != null;
+        return (priced && sized)
+                || !wholeCents(criteria.getMinPrice()) || !wholeCents(criteria.getMaxPrice())
+                || exceedsFanout(criteria)
+                || (criteria.getVariableDataTypes() != null && !criteria.getVariableDataTypes().isEmpty())
+                || criteria.getAvailableBy() != null
+                || criteria.getHasAirConditioning() != null || criteria.getHasFireplace() != null
+                || criteria.getHasPool() != null || criteria.getHasSpa() != null;
+    }
+
+    private static boolean wholeCents(BigDecimal price) {
+        return price == null || price.stripTrailingZeros().scale() <= 2;
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding, long unbounded) {
+        return price != null ? price.setScale(2, rounding).unscaledValue().longValue() : unbounded;
+    }
+
+    // One key per combination of required city and zipcode; a listing has a single city and
+    // zipcode, so it can reach a search through at most one of them
+    private static List<Key> keysFor(ListingFilterCriteriaDTO criteria) {
+        List<String> cities = distinctOrWildcard(criteria.getCities());
+        List<String> zipcodes = distinctOrWildcard(criteria.getZipCodes());
+        if (exceedsFanout(criteria)) {
+            if (cities.size() > zipcodes.size()) {
+                cities = Collections.singletonList(null);
+            } else {
+                zipcodes = Collections.singletonList(null);
+            }
+        }
+
+        List<Key> keys = new ArrayList<>(cities.size() * zipcodes.size());
+        for (String city : cities) {
+            for (String zipcode : zipcodes) {
+                keys.add(new Key(city, zipcode, criteria.getBeds(), criteria.getBaths()));
+            }
+        }
+        return keys;
+    }
+
+    private static boolean exceedsFanout(ListingFilterCriteriaDTO criteria) {
+        return distinctOrWildcard(criteria.getCities()).size() * distinctOrWildcard(criteria.getZipCodes()).size() > MAX_KEY_FANOUT;
+    }
+
+    private static List<String> distinctOrWildcard(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.singletonList(null);
+        }
+        return values.stream().distinct().toList();
+    }
+
+    private static String[] withWildcard(String value) {
+        return value != null ? new String[] {value, null} : new String[] {null};
+    }
+
+    private static Integer[] withWildcard(Integer value) {
+        return value != null ? new Integer[] {value, null} : new Integer[] {null};
+    }
+}
@@ -0,0 +1,54 @@
+package com.pm.backend.util;
+
+import java.util.Arrays;
+
+// Plain loops, one row at a time. Branch-free: the row's bit comes from arithmetic, so unpredictable
+// data costs no mispredictions.
+final class ScalarPredicateKernels implements PredicateKernels {
+
+    @Override
+    public void andRange(long[] column, long min, long max, long[] selection, int from, int to) {
+        if (min > max) {
+            Arrays.fill(selection, from, to, 0);
+            return;
+        }
+        long width = max - min;
+        for (int word = from; word < to; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            int end = Math.min(64, column.length - base);
+            long mask = 0;
+            for (int i = 0; i < end; i++) {
+                mask |= inRange(column[base + i] - min, width) << i;
+            }
+            selection[word] = bits & mask;
+        }
+    }
+
+    @Override
+    public void andRange(int[] column, int min, int max, long[] selection, int from, int to) {
+        for (int word = from; word < to; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            int end = Math.min(64, column.length - base);
+            long mask = 0;
+            for (int i = 0; i < end; i++) {
+                long value = column[base + i];
+                mask |= (((value - min) | (max - value)) >>> 63 ^ 1) << i;
+            }
+            selection[word] = bits & mask;
+        }
+    }
+
+    // 1 when value, taken as unsigned, is at most width: min <= value <= max after subtracting min
+    private static long inRange(long value, long width) {
+        long borrow = (~width & value) | (~(width ^ value) & (width - value));
+        return borrow >>> 63 ^ 1;
+    }
+}
@@ -0,0 +1,199 @@
+package com.pm.backend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pm.backend.model.PhotoUrlTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Generates listings in the raw Zillow format DataSeeder reads, for scale testing. Each synthetic listing
+// starts from a randomly chosen seed record and jitters it, so city, zipcode, price, beds, baths and
+// coordinates keep the seed file's joint distribution while every zpid, address and photo key is new.
+// Listing i depends only on (seed, i): output is reproducible and can be produced in any order or in parallel.
+public class SyntheticListingGenerator {
+    // Above any real zpid, so synthetic rows never collide with seed data
+    public static final long ZPID_BASE = 10_000_000_000L;
+
+    private static final String SEED_FILE = "data/zillow_data.json";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final List<ObjectNode> templates;
+    private final long seed;
+
+    public SyntheticListingGenerator(List<ObjectNode> templates, long seed) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("At least one template listing is required");
+        }
+        this.templates = templates;
+        this.seed = seed;
+    }
+
+    // Templates from the bundled seed file, keeping only records with coordinates and an address
+    public static SyntheticListingGenerator fromSeedFile(ObjectMapper objectMapper, long seed) throws IOException {
+        JsonNode root;
+        try (InputStream inputStream = SyntheticListingGenerator.class.getClassLoader().getResourceAsStream(SEED_FILE)) {
+            if (inputStream == null) {
+                throw new IOException("Seed file not found on classpath: " + SEED_FILE);
+            }
+            root = objectMapper.readTree(inputStream);
+        }
+
+        List<ObjectNode> templates = new ArrayList<>();
+        for (JsonNode node : root) {
+            JsonNode latLong = node.path("latLong");
+            if (node instanceof ObjectNode objectNode && latLong.has("latitude") && latLong.has("longitude")
+                    && node.hasNonNull("addressStreet") && node.hasNonNull("addressCity")) {
+                templates.add(objectNode);
+            }
+        }
+        return new SyntheticListingGenerator(templates, seed);
+    }
+
+    public ObjectNode generate(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed, index));
+        ObjectNode listing = templates.get(random.nextInt(templates.size())).deepCopy();
+
+        listing.put("zpid", String.valueOf(ZPID_BASE + index));
+
+        // New street number plus a unit suffix derived from the index keeps addresses unique
+        String street = streetName(listing.path("addressStreet").asText());
+        String addressStreet = (1 + random.nextInt(9999)) + " " + street + " # " + Long.toString(index, 36);
+        listing.put("addressStreet", addressStreet);
+        listing.put("address", addressStreet + ", " + listing.path("addressCity").asText()
+                + ", " + listing.path("addressState").asText());
+
+        // Up to a few hundred metres from the template
+        ObjectNode latLong = (ObjectNode) listing.get("latLong");
+        latLong.put("latitude", round(latLong.path("latitude").asDouble() + random.nextGaussian() * 0.004, 6));
+        latLong.put("longitude", round(latLong.path("longitude").asDouble() + random.nextGaussian() * 0.004, 6));
+
+        if (listing.hasNonNull("price")) {
+            String digits = listing.path("price").asText().replaceAll("[^0-9]", "");
+            if (!digits.isEmpty()) {
+                long price = Math.round(Long.parseLong(digits) * Math.exp(random.nextGaussian() * 0.08) / 5) * 5;
+                listing.put("price", String.format("$%,d/mo", price));
+            }
+        }
+        jitterInteger(listing, "area", random, 0.08);
+        jitterInteger(listing, "zestimate", random, 0.08);
+
+        regeneratePhotos(listing, random);
+        return listing;
+    }
+
+    public void writeNdjson(OutputStream out, long count, ObjectMapper objectMapper) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (long i = 0; i < count; i++) {
+                generator.writeTree(generate(i));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    public void writeJsonArray(OutputStream out, long count, ObjectMapper objectMapper) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (long i = 0; i < count; i++) {
+                generator.writeTree(generate(i));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    // Usage: SyntheticListingGenerator <output.json|output.ndjson> <count> [seed]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SyntheticListingGenerator <output.json|output.ndjson> <count> [seed]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        long count = Long.parseLong(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        SyntheticListingGenerator generator = fromSeedFile(objectMapper, seed);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            if (output.toString().endsWith(".ndjson")) {
+                generator.writeNdjson(out, count, objectMapper);
+            } else {
+                generator.writeJsonArray(out, count, objectMapper);
+            }
+        }
+        System.out.printf("Wrote %d synthetic listings (seed %d) to %s%n", count, seed, output);
+    }
+
+    // Same number of photos as the template, with fresh keys; imgSrc follows the first photo
+    private static void regeneratePhotos(ObjectNode listing, SplittableRandom random) {
+        JsonNode carousel = listing.get("carouselPhotosComposable");
+        if (!(carousel instanceof ObjectNode carouselNode) || !(carousel.get("photoData") instanceof ArrayNode photoData)) {
+            return;
+        }
+        for (JsonNode photo : photoData) {
+            if (photo instanceof ObjectNode photoNode) {
+                photoNode.put("photoKey", photoKey(random));
+            }
+        }
+        String baseUrl = carouselNode.path("baseUrl").asText(null);
+        if (baseUrl != null && !photoData.isEmpty()) {
+            listing.put("imgSrc", PhotoUrlTemplate.expand(baseUrl, photoData.get(0).path("photoKey").asText()));
+        }
+    }
+
+    private static void jitterInteger(ObjectNode listing, String field, SplittableRandom random, double sigma) {
+        JsonNode value = listing.get(field);
+        if (value != null && value.isNumber()) {
+            listing.put(field, (int) Math.round(value.asInt() * Math.exp(random.nextGaussian() * sigma)));
+        }
+    }
+
+    // "2211 River Park Cir # 46a2b3d73" -> "River Park Cir"
+    private static String streetName(String addressStreet) {
+        String street = addressStreet;
+        int unit = street.indexOf(" #");
+        if (unit >= 0) {
+            street = street.substring(0, unit);
+        }
+        int space = street.indexOf(' ');
+        if (space > 0 && Character.isDigit(street.charAt(0))) {
+            street = street.substring(space + 1);
+        }
+        return street.isBlank() ? "Main St" : street;
+    }
+
+    private static String photoKey(SplittableRandom random) {
+        char[] key = new char[32];
+        for (int i = 0; i < key.length; i += 16) {
+            long bits = random.nextLong();
+            for (int j = 0; j < 16; j++) {
+                key[i + j] = HEX[(int) (bits >>> (j * 4)) & 0xf];
+            }
+        }
+        return new String(key);
+    }
+
+    private static double round(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    // SplitMix64 finalizer over (seed, index), so neighbouring indexes get unrelated streams
+    private static long mix(long seed, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,37 @@
+package com.pm.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket in its GCRA form: the whole state is the "theoretical arrival time" of the
+// next token, so acquiring is a single CAS and no refill bookkeeping is needed. A bucket whose
+// arrival time has passed is full and indistinguishable from a fresh one, so it can be dropped.
+public final class TokenBucket {
+    private final long capacity;
+    private final long intervalNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, long intervalNanos, long nowNanos) {
+        this.capacity = capacity;
+        this.intervalNanos = intervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Takes cost tokens; returns 0 on success, otherwise the nanos until that many are available
+    public long tryAcquire(int cost, long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + cost * intervalNanos;
+            long excess = next - nowNanos - capacity * intervalNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pm.backend.util;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+// Kernels on the incubating Vector API, compiled to SIMD compares at the widest vector size the CPU
+// has. A bitmap word's 64 rows are compared a vector at a time and each compare's mask is shifted
+// into place; ranges are one unsigned compare, value - min <= max - min. The partial last word
+// goes to the scalar kernels. Only created through PredicateKernels.create.
+final class VectorPredicateKernels implements PredicateKernels {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    private final ScalarPredicateKernels scalar = new ScalarPredicateKernels();
+
+    // Without 128-bit vectors the API falls back to a far slower Java implementation
+    static boolean isAccelerated() {
+        return VectorShape.preferredShape().vectorBitSize() >= 128;
+    }
+
+    @Override
+    public void andRange(long[] column, long min, long max, long[] selection, int from, int to) {
+        if (min > max) {
+            Arrays.fill(selection, from, to, 0);
+            return;
+        }
+        long width = max - min;
+        int whole = Math.min(to, column.length >>> 6);
+        for (int word = from; word < whole; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            long mask = 0;
+            for (int lane = 0; lane < 64; lane += LONGS.length()) {
+                mask |= LongVector.fromArray(LONGS, column, base + lane).sub(min)
+                        .compare(VectorOperators.UNSIGNED_LE, width).toLong() << lane;
+            }
+            selection[word] = bits & mask;
+        }
+        scalar.andRange(column, min, max, selection, Math.max(from, whole), to);
+    }
+
+    @Override
+    public void andRange(int[] column, int min, int max, long[] selection, int from, int to) {
+        if (min > max) {
+            Arrays.fill(selection, from, to, 0);
+            return;
+        }
+        int width = max - min;
+        int whole = Math.min(to, column.length >>> 6);
+        for (int word = from; word < whole; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            long mask = 0;
+            for (int lane = 0; lane < 64; lane += INTS.length()) {
+                mask |= IntVector.fromArray(INTS, column, base + lane).sub(min)
+                        .compare(VectorOperators.UNSIGNED_LE, width).toLong() << lane;
+            }
+            selection[word] = bits & mask;
+        }
+        scalar.andRange(column, min, max, selection, Math.max(from, whole), to);
+    }
+
+    @Override
+    public void andEqual(int[] column, int wanted, long[] selection, int from, int to) {
+        int whole = Math.min(to, column.length >>> 6);
+        for (int word = from; word < whole; word++) {
+            long bits = selection[word];
+            if (bits == 0) {
+                continue;
+            }
+            int base = word << 6;
+            long mask = 0;
+            for (int lane = 0; lane < 64; lane += INTS.length()) {
+                mask |= IntVector.fromArray(INTS, column, base + lane)
+                        .compare(VectorOperators.EQ, wanted).toLong() << lane;
+            }
+            selection[word] = bits & mask;
+        }
+        scalar.andEqual(column, wanted, selection, Math.max(from, whole), to);
+    }
+}
@@ -0,0 +1,135 @@
+package com.pm.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingView;
+import com.pm.backend.model.Listing;
+import com.pm.backend.service.ListingJsonCache;
+import com.pm.backend.util.PrecompressedJson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Bytes on the wire and CPU cost per response for each gzip level, over zillow_data.json:
+// a 20-listing card page (compressed per response by the container) and a single detail
+// listing, compressed per response versus served from its pre-compressed body.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.pm.backend.benchmark.ListingCompressionBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingCompressionBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int[] LEVELS = {1, 3, 6, 9};
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private List<byte[]> pages;
+    private List<EncodedListing> details;
+    private List<byte[]> detailJson;
+    private List<PrecompressedJson> precompressed;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Listing> listings = SeedListings.load();
+        ListingJsonCache cache = new ListingJsonCache(jsonMapper, listings.size() * 4, level);
+
+        pages = new ArrayList<>();
+        for (int from = 0; from + PAGE_SIZE <= listings.size(); from += PAGE_SIZE) {
+            List<EncodedListing> page = new ArrayList<>(PAGE_SIZE);
+            for (Listing listing : listings.subList(from, from + PAGE_SIZE)) {
+                page.add(cache.encode(listing, ListingView.CARD));
+            }
+            pages.add(jsonMapper.writeValueAsBytes(page));
+        }
+
+        details = new ArrayList<>(listings.size());
+        detailJson = new ArrayList<>(listings.size());
+        precompressed = new ArrayList<>(listings.size());
+        for (Listing listing : listings) {
+            EncodedListing detail = cache.encode(listing, ListingView.DETAIL);
+            details.add(detail);
+            detailJson.add(jsonMapper.writeValueAsBytes(detail));
+            precompressed.add(detail.getGzip());
+        }
+    }
+
+    @Benchmark
+    public byte[] gzipCardPage() throws IOException {
+        byte[] page = pages.get(next(pages.size()));
+        return gzip(page, level);
+    }
+
+    @Benchmark
+    public byte[] gzipDetail() throws IOException {
+        byte[] json = detailJson.get(next(detailJson.size()));
+        return gzip(json, level);
+    }
+
+    @Benchmark
+    public byte[] precompressedDetail() throws IOException {
+        int index = next(details.size());
+        EncodedListing detail = details.get(index);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(precompressed.get(index).gzipLength(detail.getTail()));
+        precompressed.get(index).writeGzip(detail.getTail(), out);
+        return out.toByteArray();
+    }
+
+    private int next(int bound) {
+        cursor = cursor + 1 < bound ? cursor + 1 : 0;
+        return cursor;
+    }
+
+    static byte[] gzip(byte[] payload, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        ListingCompressionBenchmark benchmark = new ListingCompressionBenchmark();
+        System.out.printf("%-6s %14s %14s %14s %14s%n",
+                "level", "page bytes", "page gzip", "detail bytes", "detail gzip");
+        for (int level : LEVELS) {
+            benchmark.level = level;
+            benchmark.setUp();
+            long pageBytes = 0, pageGzip = 0, detailBytes = 0, detailGzip = 0;
+            for (byte[] page : benchmark.pages) {
+                pageBytes += page.length;
+                pageGzip += gzip(page, level).length;
+            }
+            for (int i = 0; i < benchmark.details.size(); i++) {
+                detailBytes += benchmark.detailJson.get(i).length;
+                detailGzip += benchmark.precompressed.get(i).gzipLength(benchmark.details.get(i).getTail());
+            }
+            System.out.printf("%-6d %14d %14d %14d %14d%n", level,
+                    pageBytes / benchmark.pages.size(), pageGzip / benchmark.pages.size(),
+                    detailBytes / benchmark.details.size(), detailGzip / benchmark.details.size());
+        }
+
+        // exec:java loads the test classpath in-process, which a forked JVM would not see
+        new Runner(new OptionsBuilder()
+                .include(ListingCompressionBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+}
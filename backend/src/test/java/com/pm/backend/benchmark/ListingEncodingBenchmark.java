@@ -0,0 +1,100 @@
+package com.pm.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingResponseDTO;
+import com.pm.backend.dto.ListingView;
+import com.pm.backend.mapper.ListingMapper;
+import com.pm.backend.model.Listing;
+import com.pm.backend.service.ListingJsonCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Size and encode-time comparison of the listing response formats over zillow_data.json.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.pm.backend.benchmark.ListingEncodingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingEncodingBenchmark {
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
+    private List<Listing> listings;
+    private List<EncodedListing> encodedListings;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same builder Spring MVC uses for its converters
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+        listings = SeedListings.load();
+        ListingJsonCache cache = new ListingJsonCache(jsonMapper, listings.size() * 2, 0);
+        encodedListings = new ArrayList<>(listings.size());
+        for (Listing listing : listings) {
+            encodedListings.add(cache.encode(listing, ListingView.CARD));
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonFromEntities() throws Exception {
+        List<ListingResponseDTO> dtos = new ArrayList<>(listings.size());
+        for (Listing listing : listings) {
+            dtos.add(ListingMapper.toDTO(listing, ListingView.CARD));
+        }
+        return jsonMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] jsonPreEncoded() throws Exception {
+        return jsonMapper.writeValueAsBytes(encodedListings);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cborMapper.writeValueAsBytes(encodedListings);
+    }
+
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smileMapper.writeValueAsBytes(encodedListings);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ListingEncodingBenchmark benchmark = new ListingEncodingBenchmark();
+        benchmark.setUp();
+
+        System.out.printf("%d listings (card view)%n", benchmark.listings.size());
+        System.out.printf("%-10s %12s %12s%n", "format", "bytes", "gzip bytes");
+        printSize("json", benchmark.jsonPreEncoded());
+        printSize("cbor", benchmark.cbor());
+        printSize("smile", benchmark.smile());
+
+        // exec:java loads the test classpath in-process, which a forked JVM would not see
+        new Runner(new OptionsBuilder()
+                .include(ListingEncodingBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+
+    private static void printSize(String format, byte[] payload) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        System.out.printf("%-10s %12d %12d%n", format, payload.length, compressed.size());
+    }
+}
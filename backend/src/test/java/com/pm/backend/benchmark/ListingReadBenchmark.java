@@ -0,0 +1,97 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.BackendApplication;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.service.ListingService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Time and allocation per call of the listing read paths against the seeded H2 database.
+// "readWrite" wraps each call in a read-write transaction, which is how the service ran before
+// its read methods were marked read-only: entities are snapshotted and dirty-checked on flush.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.pm.backend.benchmark.ListingReadBenchmark
+// (add -Dapp.seeding.synthetic-count=N to measure against N generated listings on top of the seed file)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ListingReadBenchmark {
+    @Param({"readOnly", "readWrite"})
+    public String transactionMode;
+
+    private ConfigurableApplicationContext context;
+    private ListingService listingService;
+    private TransactionTemplate readWriteTransaction;
+    private ListingFilterCriteriaDTO noFilters;
+    private ListingFilterCriteriaDTO priceFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=error",
+                        "spring.mail.username=benchmark",
+                        "spring.mail.password=benchmark",
+                        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+                        "security.jwt.expiration-time=3600000")
+                .run();
+        listingService = context.getBean(ListingService.class);
+        readWriteTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        noFilters = new ListingFilterCriteriaDTO();
+        priceFilter = new ListingFilterCriteriaDTO();
+        priceFilter.setMinPrice(new BigDecimal("1500"));
+        priceFilter.setMaxPrice(new BigDecimal("3000"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<EncodedListing> cardPage() {
+        return call(() -> listingService.getFilteredListings(0, 20, "price", "asc", noFilters));
+    }
+
+    @Benchmark
+    public Page<EncodedListing> filteredCardPage() {
+        return call(() -> listingService.getFilteredListings(0, 20, "price", "asc", priceFilter));
+    }
+
+    @Benchmark
+    public Optional<EncodedListing> detail() {
+        return call(() -> listingService.getListing("116216299"));
+    }
+
+    private <T> T call(java.util.function.Supplier<T> read) {
+        if ("readWrite".equals(transactionMode)) {
+            return readWriteTransaction.execute(status -> read.get());
+        }
+        return read.get();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // exec:java loads the test classpath in-process, which a forked JVM would not see
+        new Runner(new OptionsBuilder()
+                .include(ListingReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.util.ListingSearchIndex;
+import com.pm.backend.util.PredicateKernels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// First-page searches against the in-memory listing search index, on a pool of each size, to show how
+// the segmented scan scales. "clustered" gives price a trend along zpid order, the case the per-segment
+// zone maps can skip or short-cut; in "random" they never can and every segment is scanned.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.pm.backend.benchmark.ListingSearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingSearchBenchmark {
+    private static final String[] CITIES = {"Orlando", "Oviedo", "Winter Park", "Kissimmee", "Sanford", "Apopka", "Lake Mary", "Longwood"};
+
+    @Param({"1000000"})
+    public int listings;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"random", "clustered"})
+    public String layout;
+
+    private ForkJoinPool workers;
+    private ListingSearchIndex index;
+    private ListingFilterCriteriaDTO broad;
+    private ListingFilterCriteriaDTO narrow;
+    private ListingFilterCriteriaDTO priceRange;
+
+    @Setup
+    public void setUp() {
+        workers = new ForkJoinPool(parallelism);
+        index = new ListingSearchIndex(rows(), workers, PredicateKernels.create(true));
+
+        broad = new ListingFilterCriteriaDTO();
+        broad.setMinPrice(new BigDecimal("600"));
+
+        narrow = new ListingFilterCriteriaDTO();
+        narrow.setCities(List.of("Oviedo"));
+        narrow.setBeds(3);
+        narrow.setHasPool(true);
+        narrow.setMaxPrice(new BigDecimal("1200"));
+
+        priceRange = new ListingFilterCriteriaDTO();
+        priceRange.setMinPrice(new BigDecimal("1500"));
+        priceRange.setMaxPrice(new BigDecimal("1600"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        workers.shutdown();
+    }
+
+    private List<ListingSearchIndex.Row> rows() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<ListingSearchIndex.Row> rows = new ArrayList<>(listings);
+        for (int i = 0; i < listings; i++) {
+            // Cents; clustered prices rise from $500 to $4,500 across the catalog with a little jitter
+            long cents = layout.equals("clustered")
+                    ? 50_000 + 400_000L * i / listings + random.nextInt(5_000)
+                    : 50_000 + random.nextInt(400_000);
+            rows.add(new ListingSearchIndex.Row(String.format("%010d", i), BigDecimal.valueOf(cents, 2),
+                    300 + random.nextInt(3_000), 1 + random.nextInt(5), 1 + random.nextInt(4),
+                    CITIES[random.nextInt(CITIES.length)], "FL", "328" + (10 + random.nextInt(40)), null, null,
+                    random.nextBoolean(), random.nextBoolean(), random.nextBoolean(), random.nextBoolean(),
+                    base.plusSeconds(random.nextInt(30_000_000)), base.plusSeconds(random.nextInt(30_000_000))));
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public ListingSearchIndex.Hits broadByPrice() {
+        return index.search(broad, ListingSearchIndex.SortField.PRICE, false, 0, 21);
+    }
+
+    @Benchmark
+    public ListingSearchIndex.Hits broadByBaths() {
+        return index.search(broad, ListingSearchIndex.SortField.BATHS, false, 0, 21);
+    }
+
+    @Benchmark
+    public ListingSearchIndex.Hits narrowByBaths() {
+        return index.search(narrow, ListingSearchIndex.SortField.BATHS, false, 0, 21);
+    }
+
+    @Benchmark
+    public ListingSearchIndex.Hits priceRangeByBaths() {
+        return index.search(priceRange, ListingSearchIndex.SortField.BATHS, false, 0, 21);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ListingSearchBenchmark.class.getSimpleName()).forks(0).build()).run();
+    }
+}
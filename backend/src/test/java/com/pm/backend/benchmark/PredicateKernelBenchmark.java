@@ -0,0 +1,78 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.util.PredicateKernels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One numeric filter over a whole column, scalar loop against the Vector API kernels, at catalog sizes
+// we expect to reach. The selection starts full each call, so every word is evaluated.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.pm.backend.benchmark.PredicateKernelBenchmark
+// (.mvn/jvm.config adds jdk.incubator.vector to the Maven JVM, which exec:java runs the benchmark in)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PredicateKernelBenchmark {
+    @Param({"1000000", "10000000"})
+    public int listings;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    private PredicateKernels predicateKernels;
+    private long[] price;
+    private int[] area;
+    private int[] beds;
+    private long[] selection;
+
+    @Setup
+    public void setUp() {
+        predicateKernels = PredicateKernels.create(kernels.equals("vector"));
+        if (kernels.equals("vector") && predicateKernels.getClass().getSimpleName().startsWith("Scalar")) {
+            throw new IllegalStateException("Vector kernels unavailable; is the JVM running with --add-modules jdk.incubator.vector?");
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        price = new long[listings];
+        area = new int[listings];
+        beds = new int[listings];
+        for (int i = 0; i < listings; i++) {
+            price[i] = 50_000 + random.nextInt(400_000);
+            area[i] = 300 + random.nextInt(3_000);
+            beds[i] = 1 + random.nextInt(5);
+        }
+        selection = new long[(listings + 63) >>> 6];
+    }
+
+    @Benchmark
+    public long[] priceRange() {
+        Arrays.fill(selection, -1L);
+        predicateKernels.andRange(price, 100_000, 200_000, selection, 0, selection.length);
+        return selection;
+    }
+
+    @Benchmark
+    public long[] areaRange() {
+        Arrays.fill(selection, -1L);
+        predicateKernels.andRange(area, 800, 1_500, selection, 0, selection.length);
+        return selection;
+    }
+
+    @Benchmark
+    public long[] bedsEqual() {
+        Arrays.fill(selection, -1L);
+        predicateKernels.andEqual(beds, 3, selection, 0, selection.length);
+        return selection;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PredicateKernelBenchmark.class.getSimpleName()).forks(0).build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.pm.backend.benchmark;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.model.Listing;
+import com.pm.backend.specification.ListingSpecification;
+import com.pm.backend.util.SavedSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of matching one written listing against every saved search: the reverse index versus
+// evaluating each search in turn. Searches are drawn from the seed listings' cities, zipcodes and
+// prices, so their selectivity resembles what users save.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.pm.backend.benchmark.SavedSearchMatchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SavedSearchMatchBenchmark {
+    @Param({"10000", "100000"})
+    public int searches;
+
+    private List<Listing> listings;
+    private Map<Long, ListingFilterCriteriaDTO> criteria;
+    private SavedSearchIndex index;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws Exception {
+        listings = SeedListings.load();
+        criteria = generate(listings, searches, 42);
+        index = new SavedSearchIndex(criteria);
+    }
+
+    @Benchmark
+    public void index(Blackhole blackhole) {
+        index.match(listings.get(next()), blackhole::consume);
+    }
+
+    @Benchmark
+    public void scanAll(Blackhole blackhole) {
+        Listing listing = listings.get(next());
+        criteria.forEach((id, search) -> {
+            if (ListingSpecification.matches(search, listing)) {
+                blackhole.consume(id);
+            }
+        });
+    }
+
+    private int next() {
+        cursor = cursor + 1 < listings.size() ? cursor + 1 : 0;
+        return cursor;
+    }
+
+    // Like what people save: a zipcode or city, usually beds, and a price window around a home they
+    // liked; sometimes baths, a minimum area or a pool
+    static Map<Long, ListingFilterCriteriaDTO> generate(List<Listing> listings, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<Long, ListingFilterCriteriaDTO> searches = new HashMap<>(count * 2);
+        for (long id = 0; id < count; id++) {
+            Listing like = listings.get(random.nextInt(listings.size()));
+            ListingFilterCriteriaDTO search = new ListingFilterCriteriaDTO();
+            int location = random.nextInt(10);
+            if (location < 5 && like.getAddressZipcode() != null) {
+                search.setZipCodes(List.of(like.getAddressZipcode()));
+            } else if (location < 9) {
+                search.setCities(List.of(like.getAddressCity()));
+            }
+            if (random.nextInt(10) < 8) {
+                search.setBeds(like.getBeds());
+            }
+            if (random.nextInt(10) < 4) {
+                search.setBaths(like.getBaths());
+            }
+            if (like.getPrice() != null && random.nextInt(10) < 9) {
+                BigDecimal price = like.getPrice();
+                search.setMaxPrice(price.multiply(BigDecimal.valueOf(1.0 + random.nextDouble(0.15))));
+                if (random.nextInt(10) < 7) {
+                    search.setMinPrice(price.multiply(BigDecimal.valueOf(1.0 - random.nextDouble(0.15))));
+                }
+            }
+            if (like.getArea() != null && random.nextInt(10) < 2) {
+                search.setMinArea((int) (like.getArea() * 0.8));
+            }
+            if (random.nextInt(10) < 1) {
+                search.setHasPool(true);
+            }
+            searches.put(id, search);
+        }
+        return searches;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Listing> listings = SeedListings.load();
+        for (int count : new int[] {10_000, 100_000}) {
+            SavedSearchIndex index = new SavedSearchIndex(generate(listings, count, 42));
+            long[] matches = {0};
+            for (Listing listing : listings) {
+                index.match(listing, id -> matches[0]++);
+            }
+            System.out.printf("%,d searches: %.1f matches per listing%n", count, (double) matches[0] / listings.size());
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(SavedSearchMatchBenchmark.class.getSimpleName())
+                .forks(0)
+                .build()).run();
+    }
+}
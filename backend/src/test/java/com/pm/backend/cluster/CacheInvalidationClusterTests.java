@@ -0,0 +1,163 @@
+package com.pm.backend.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.BackendApplication;
+import com.pm.backend.dto.ListingRequestDTO;
+import com.pm.backend.service.CacheInvalidationService;
+import com.pm.backend.service.ListingService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two application contexts on one Postgres database, standing in for two instances behind the load
+// balancer. Needs a database the tests may write to, e.g.
+// CACHE_INVALIDATION_DB_URL=jdbc:postgresql://localhost:5432/housing_board mvn test -Dtest=CacheInvalidationClusterTests
+// (CACHE_INVALIDATION_DB_USERNAME and CACHE_INVALIDATION_DB_PASSWORD default to the dev credentials)
+@EnabledIfEnvironmentVariable(named = "CACHE_INVALIDATION_DB_URL", matches = ".+")
+class CacheInvalidationClusterTests {
+    private static final String CHANNEL = "cache_invalidation_test";
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final String ZPID = "cache-invalidation-test-1";
+
+    private static final Recorder first = new Recorder();
+    private static final Recorder second = new Recorder();
+    private static ConfigurableApplicationContext firstContext;
+    private static ConfigurableApplicationContext secondContext;
+
+    // Records what an instance was told to evict
+    static class Recorder implements CacheInvalidationService.Handler {
+        final List<String> invalidated = new CopyOnWriteArrayList<>();
+        final AtomicInteger flushes = new AtomicInteger();
+
+        @Override
+        public void invalidate(CacheInvalidationService.EntityType type, String id) {
+            invalidated.add(type + " " + id);
+        }
+
+        @Override
+        public void invalidateAll() {
+            flushes.incrementAndGet();
+        }
+    }
+
+    @BeforeAll
+    static void startInstances() throws Exception {
+        firstContext = start(first);
+        secondContext = start(second);
+
+        // The listeners connect in the background; probe until both are subscribed
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            long sequence = 0;
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!first.invalidated.contains("USER probe") || !second.invalidated.contains("USER probe")) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new AssertionError("Timed out waiting for the listeners to subscribe");
+                }
+                statement.setString(1, CHANNEL);
+                statement.setString(2, "probe-node " + ++sequence + "\nUSER probe");
+                statement.execute();
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        try {
+            firstContext.getBean(ListingService.class).deleteListing(ZPID);
+        } catch (RuntimeException e) {
+            // Already gone
+        }
+        firstContext.close();
+        secondContext.close();
+    }
+
+    @Test
+    void listingWritesInvalidateOtherInstances() throws Exception {
+        ListingService listingService = firstContext.getBean(ListingService.class);
+        listingService.createListing(listing("$1,500/mo"));
+        awaitTrue(() -> second.invalidated.contains("LISTING " + ZPID), "create reached the second instance");
+
+        second.invalidated.clear();
+        listingService.updateListing(ZPID, listing("$1,400/mo"));
+        awaitTrue(() -> second.invalidated.contains("LISTING " + ZPID), "update reached the second instance");
+
+        // An instance keeps its own caches current and ignores its own messages
+        assertEquals(false, first.invalidated.contains("LISTING " + ZPID), "first instance received its own invalidations");
+    }
+
+    @Test
+    void sequenceGapFlushesEverything() throws Exception {
+        int flushesBefore = second.flushes.get();
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : List.of("gap-test-node 1\nLISTING gap-1", "gap-test-node 3\nLISTING gap-3")) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        }
+
+        awaitTrue(() -> second.flushes.get() > flushesBefore, "gap triggered a flush");
+        assertTrue(second.invalidated.contains("LISTING gap-1"));
+        assertEquals(false, second.invalidated.contains("LISTING gap-3"));
+    }
+
+    private static ConfigurableApplicationContext start(Recorder recorder) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .initializers(context -> context.getBeanFactory().registerSingleton("invalidationRecorder", recorder))
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + System.getenv("CACHE_INVALIDATION_DB_URL"),
+                        "--spring.datasource.username=" + env("CACHE_INVALIDATION_DB_USERNAME", "housing_user"),
+                        "--spring.datasource.password=" + env("CACHE_INVALIDATION_DB_PASSWORD", "housing_password"),
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--app.seeding.enabled=false",
+                        "--app.cache-invalidation.enabled=true",
+                        "--app.cache-invalidation.channel=" + CHANNEL);
+    }
+
+    private static ListingRequestDTO listing(String price) throws Exception {
+        String json = "{\"zpid\":\"" + ZPID + "\",\"address\":\"1 Coherence Way, Orlando, FL 32801\","
+                + "\"addressStreet\":\"1 Coherence Way\",\"addressCity\":\"Orlando\",\"addressState\":\"FL\","
+                + "\"addressZipcode\":\"32801\",\"statusText\":\"For Rent\",\"imgSrc\":\"https://example.com/i.jpg\","
+                + "\"detailUrl\":\"https://example.com/listing\",\"price\":\"" + price + "\",\"beds\":2,\"baths\":1,"
+                + "\"latLong\":{\"latitude\":28.5,\"longitude\":-81.3}}";
+        return new ObjectMapper().findAndRegisterModules().readValue(json, ListingRequestDTO.class);
+    }
+
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(System.getenv("CACHE_INVALIDATION_DB_URL"),
+                env("CACHE_INVALIDATION_DB_USERNAME", "housing_user"),
+                env("CACHE_INVALIDATION_DB_PASSWORD", "housing_password"));
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String description) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out waiting until " + description);
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.pm.backend.config;
+
+import com.pm.backend.exception.RateLimitExceededException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTests {
+    private HikariPoolMXBean pool;
+    private HandlerExceptionResolver resolver;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaults().setCapacity(8);
+        properties.getDefaults().setPeriod(Duration.ofSeconds(10));
+        properties.setSheddingCost(4);
+        RateLimitProperties.Route bulkImport = new RateLimitProperties.Route();
+        bulkImport.setName("bulk-import");
+        bulkImport.setMethod("POST");
+        bulkImport.setPath("/listings/bulk-import");
+        bulkImport.setCapacity(2);
+        bulkImport.setPeriod(Duration.ofMinutes(1));
+        RateLimitProperties.Route allListings = new RateLimitProperties.Route();
+        allListings.setName("all-listings");
+        allListings.setMethod("GET");
+        allListings.setPath("/listings");
+        allListings.setWithoutParams(List.of("page", "size"));
+        allListings.setCapacity(1);
+        allListings.setPeriod(Duration.ofMinutes(1));
+        properties.setRoutes(List.of(bulkImport, allListings));
+
+        pool = mock(HikariPoolMXBean.class);
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        resolver = mock(HandlerExceptionResolver.class);
+        filter = new RateLimitFilter(properties, List.of(dataSource), resolver);
+    }
+
+    @Test
+    void sheddingChargesEveryRequestMore() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(1);
+
+        // 8 tokens at 4 per request
+        assertTrue(passes("GET", "/listings/1"));
+        assertTrue(passes("GET", "/listings/1"));
+        assertEquals(false, passes("GET", "/listings/1"));
+    }
+
+    @Test
+    void noSheddingWhileNoThreadWaits() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(0);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(passes("GET", "/listings/1"));
+        }
+        assertEquals(false, passes("GET", "/listings/1"));
+    }
+
+    @Test
+    void sheddingCostIsCappedAtTheRouteCapacity() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(1);
+
+        // Costing 4 against a burst of 2 would reject every request, whatever Retry-After said
+        assertTrue(passes("POST", "/listings/bulk-import"));
+
+        RateLimitExceededException rejection = rejection("POST", "/listings/bulk-import");
+        assertNotNull(rejection);
+        // Both tokens were spent, so the bucket is full again within one period
+        assertTrue(rejection.getRetryAfterSeconds() <= 60, "Retry-After " + rejection.getRetryAfterSeconds());
+    }
+
+    @Test
+    void paginatedListingsAreNotChargedAsAFullDump() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(0);
+
+        assertTrue(passes("GET", "/listings"));
+        assertEquals(false, passes("GET", "/listings"));
+        // The controller pages when either parameter is present, so these fall to the default budget
+        assertTrue(passes("GET", "/listings", "size", "50"));
+        assertTrue(passes("GET", "/listings", "page", "2"));
+        assertTrue(passes("GET", "/listings", "page", "2", "size", "50"));
+    }
+
+    private boolean passes(String method, String path, String... params) throws Exception {
+        return rejection(method, path, params) == null;
+    }
+
+    // The exception the request was rejected with, or null when it reached the chain
+    private RateLimitExceededException rejection(String method, String path, String... params) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        for (int i = 0; i < params.length; i += 2) {
+            request.addParameter(params[i], params[i + 1]);
+        }
+        request.setRemoteAddr("203.0.113.7");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        if (chain.getRequest() != null) {
+            verify(resolver, never()).resolveException(any(), any(), isNull(), any());
+            return null;
+        }
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(resolver, times(1)).resolveException(any(), any(), isNull(), captor.capture());
+        clearInvocations(resolver);
+        assertNull(chain.getResponse());
+        return (RateLimitExceededException) captor.getValue();
+    }
+}
@@ -0,0 +1,126 @@
+package com.pm.backend.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two separate in-memory H2 databases, each holding its own name, behind the routing data source
+// wired the way DataSourceRoutingConfiguration wires it
+class ReplicaRoutingDataSourceTests {
+    private static final Duration WINDOW = Duration.ofMillis(300);
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("primary"));
+        replica = new JdbcTemplate(database("replica"));
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.execute("create table notes (text varchar(100))");
+            database.execute("create table server (name varchar(20))");
+        }
+        primary.update("insert into server values ('primary')");
+        replica.update("insert into server values ('replica')");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary.getDataSource(), replica.getDataSource(),
+                new ReadYourWritesWindow(WINDOW));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.execute("shutdown");
+        replica.execute("shutdown");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        asClient("10.0.0.1");
+        assertEquals("replica", readOnly.execute(status -> serverName()));
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        asClient("10.0.0.1");
+        assertEquals("primary", readWrite.execute(status -> serverName()));
+
+        readWrite.executeWithoutResult(status -> routed.update("insert into notes values ('saved')"));
+        assertEquals(1, primary.queryForObject("select count(*) from notes", Integer.class));
+        assertEquals(0, replica.queryForObject("select count(*) from notes", Integer.class));
+    }
+
+    @Test
+    void readsAfterAWriteStayOnThePrimaryWithinTheWindow() throws InterruptedException {
+        asClient("10.0.0.1");
+        readWrite.executeWithoutResult(status -> routed.update("insert into notes values ('saved')"));
+
+        // The client sees its own write; another client is still served by the replica
+        assertEquals("primary", readOnly.execute(status -> serverName()));
+        assertEquals(Integer.valueOf(1), readOnly.execute(status -> routed.queryForObject("select count(*) from notes", Integer.class)));
+        asClient("10.0.0.2");
+        assertEquals("replica", readOnly.execute(status -> serverName()));
+
+        asClient("10.0.0.1");
+        Thread.sleep(WINDOW.toMillis() + 100);
+        assertEquals("replica", readOnly.execute(status -> serverName()));
+    }
+
+    @Test
+    void rolledBackWritesOpenNoWindow() {
+        asClient("10.0.0.1");
+        readWrite.executeWithoutResult(status -> {
+            routed.update("insert into notes values ('discarded')");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnly.execute(status -> serverName()));
+    }
+
+    @Test
+    void workOutsideARequestIsNeverPinned() {
+        readWrite.executeWithoutResult(status -> routed.update("insert into notes values ('seeded')"));
+        assertEquals("replica", readOnly.execute(status -> serverName()));
+    }
+
+    private String serverName() {
+        return routed.queryForObject("select name from server", String.class);
+    }
+
+    private static void asClient(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,64 @@
+package com.pm.backend.controller;
+
+import com.pm.backend.model.User;
+import com.pm.backend.repository.UserRepository;
+import com.pm.backend.service.JWTService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.seeding.enabled=false", "app.admin-emails=admin@example.com"})
+@AutoConfigureMockMvc
+class UserControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Test
+    void onlyAdminsListUsers() throws Exception {
+        String member = token("member", "member@example.com");
+        String admin = token("admin", "admin@example.com");
+
+        mockMvc.perform(get("/users/")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/users/").header("Authorization", "Bearer " + member)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/users/").header("Authorization", "Bearer " + admin)).andExpect(status().isOk());
+
+        // Everything else under /users stays open to any signed-in user
+        mockMvc.perform(get("/users/me").header("Authorization", "Bearer " + member)).andExpect(status().isOk());
+    }
+
+    @Test
+    void oversizedPagesAreCappedRatherThanReset() throws Exception {
+        String admin = token("admin", "admin@example.com");
+        for (int i = 0; i < 120; i++) {
+            token("paged" + i, "paged" + i + "@example.com");
+        }
+
+        mockMvc.perform(get("/users/").param("size", "500").header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(100))
+                .andExpect(jsonPath("$.hasMore").value(true));
+        mockMvc.perform(get("/users/").param("size", "0").header("Authorization", "Bearer " + admin))
+                .andExpect(jsonPath("$.users.length()").value(20));
+    }
+
+    private String token(String username, String email) {
+        User user = userRepository.findByEmail(email).orElseGet(() -> {
+            User created = new User(username, email, "not-a-real-hash");
+            created.setEnabled(true);
+            return userRepository.save(created);
+        });
+        return jwtService.generateToken(user);
+    }
+}
@@ -0,0 +1,53 @@
+package com.pm.backend.loadtest;
+
+import java.util.Arrays;
+
+// Raw latency samples for one endpoint. Each worker owns its histograms and they are merged at the end,
+// so recording needs no synchronization; exact percentiles come from sorting the merged samples.
+public class LatencyHistogram {
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+
+    public void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int errors() {
+        return errors;
+    }
+
+    public double errorRate() {
+        return count == 0 ? 0 : (double) errors / count;
+    }
+
+    // Nearest-rank percentile in milliseconds, for quantile in (0, 1]
+    public double percentileMillis(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(quantile * count) - 1;
+        return sorted[Math.max(0, Math.min(rank, count - 1))] / 1_000_000.0;
+    }
+}
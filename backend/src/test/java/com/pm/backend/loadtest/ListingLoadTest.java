@@ -0,0 +1,185 @@
+package com.pm.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.benchmark.SeedListings;
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.User;
+import com.pm.backend.repository.UserRepository;
+import com.pm.backend.util.SyntheticListingGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// End-to-end load test against the real server on the seeded in-memory database. Excluded from the
+// normal build; run with: mvn -Ploadtest test
+// Tunables (system properties): loadtest.seed, loadtest.concurrency, loadtest.warmup-seconds,
+// loadtest.duration-seconds, loadtest.max-error-rate and loadtest.max-p99-ms.<endpoint>.
+// Add -Dapp.seeding.synthetic-count=N to run against N generated listings on top of the seed file.
+// A run fails when an endpoint's p99 or error rate exceeds its threshold.
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.rate-limit.enabled=false",
+        "logging.level.com.pm.backend=warn"
+})
+class ListingLoadTest {
+    private static final String PASSWORD = "loadtest-password";
+    private static final int USERS = 50;
+    private static final Map<String, Long> DEFAULT_MAX_P99_MS = Map.of(
+            TrafficMix.SEARCH, 250L,
+            TrafficMix.DETAIL, 100L,
+            TrafficMix.SAVED, 250L,
+            TrafficMix.SAVE, 250L,
+            TrafficMix.LOGIN, 1000L,
+            TrafficMix.BULK_IMPORT, 5000L);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void replayTrafficMix() throws Exception {
+        long seed = Long.getLong("loadtest.seed", 42);
+        int concurrency = Integer.getInteger("loadtest.concurrency", Runtime.getRuntime().availableProcessors() * 4);
+        long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+        long durationSeconds = Long.getLong("loadtest.duration-seconds", 30);
+
+        String baseUrl = "http://localhost:" + port;
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<Listing> listings = SeedListings.load();
+        SyntheticListingGenerator generator = SyntheticListingGenerator.fromSeedFile(objectMapper, seed);
+        TrafficMix mix = new TrafficMix(baseUrl, listings, generator, createAccounts(client, baseUrl), objectMapper);
+
+        run(client, mix, seed, concurrency, warmupSeconds);
+        Map<String, LatencyHistogram> results = run(client, mix, seed + 1, concurrency, durationSeconds);
+
+        String report = report(results, durationSeconds);
+        System.out.println(report);
+        Path reportFile = Path.of("target", "loadtest-report.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertWithinThresholds(results);
+    }
+
+    private List<TrafficMix.Account> createAccounts(HttpClient client, String baseUrl) throws Exception {
+        List<TrafficMix.Account> accounts = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String email = "loadtest-" + i + "@example.com";
+            User user = new User("loadtest-" + i, email, passwordEncoder.encode(PASSWORD));
+            user.setEnabled(true);
+            userRepository.save(user);
+
+            HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                            Map.of("email", email, "password", PASSWORD))))
+                    .build();
+            HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+            String token = objectMapper.readTree(response.body()).path("token").asText();
+            accounts.add(new TrafficMix.Account(email, PASSWORD, token));
+        }
+        return accounts;
+    }
+
+    // Closed loop: each worker sends its next request as soon as the previous one completes
+    private Map<String, LatencyHistogram> run(HttpClient client, TrafficMix mix, long seed, int concurrency,
+                                              long seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Map<String, LatencyHistogram>>> workers = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                Random random = new Random(seed * 1_000_003L + worker);
+                workers.add(executor.submit(() -> {
+                    Map<String, LatencyHistogram> histograms = new TreeMap<>();
+                    while (System.nanoTime() < deadline) {
+                        TrafficMix.Request request = mix.next(random);
+                        long start = System.nanoTime();
+                        boolean success;
+                        try {
+                            HttpResponse<Void> response = client.send(request.httpRequest(), HttpResponse.BodyHandlers.discarding());
+                            success = response.statusCode() < 400;
+                        } catch (IOException e) {
+                            success = false;
+                        }
+                        histograms.computeIfAbsent(request.endpoint(), e -> new LatencyHistogram())
+                                .record(System.nanoTime() - start, success);
+                    }
+                    return histograms;
+                }));
+            }
+        }
+
+        Map<String, LatencyHistogram> merged = new TreeMap<>();
+        for (Future<Map<String, LatencyHistogram>> worker : workers) {
+            worker.get().forEach((endpoint, histogram) ->
+                    merged.computeIfAbsent(endpoint, e -> new LatencyHistogram()).merge(histogram));
+        }
+        return merged;
+    }
+
+    private static String report(Map<String, LatencyHistogram> results, long durationSeconds) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-12s %8s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        int total = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : results.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            total += histogram.count();
+            report.append(String.format("%-12s %8d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), histogram.count(), histogram.errors(),
+                    (double) histogram.count() / durationSeconds,
+                    histogram.percentileMillis(0.50), histogram.percentileMillis(0.99),
+                    histogram.percentileMillis(0.999)));
+        }
+        report.append(String.format("%-12s %8d %7s %9.1f%n", "total", total, "", (double) total / durationSeconds));
+        return report.toString();
+    }
+
+    private static void assertWithinThresholds(Map<String, LatencyHistogram> results) {
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        List<String> violations = new ArrayList<>();
+
+        results.forEach((endpoint, histogram) -> {
+            long maxP99 = Long.getLong("loadtest.max-p99-ms." + endpoint, DEFAULT_MAX_P99_MS.getOrDefault(endpoint, 1000L));
+            double p99 = histogram.percentileMillis(0.99);
+            if (p99 > maxP99) {
+                violations.add(String.format("%s p99 %.2f ms > %d ms", endpoint, p99, maxP99));
+            }
+            if (histogram.errorRate() > maxErrorRate) {
+                violations.add(String.format("%s error rate %.4f > %.4f", endpoint, histogram.errorRate(), maxErrorRate));
+            }
+        });
+
+        assertTrue(violations.isEmpty(), "Load test regressions: " + violations);
+    }
+}
@@ -0,0 +1,158 @@
+package com.pm.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pm.backend.model.Listing;
+import com.pm.backend.util.SyntheticListingGenerator;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Weighted mix of the requests the frontend and admin tooling actually make. Everything is drawn from
+// a seeded Random per worker, so a run with the same seed and concurrency replays the same traffic.
+public class TrafficMix {
+    public static final String SEARCH = "search";
+    public static final String DETAIL = "detail";
+    public static final String SAVED = "saved";
+    public static final String SAVE = "save";
+    public static final String LOGIN = "login";
+    public static final String BULK_IMPORT = "bulk-import";
+
+    private static final String[] SORT_FIELDS = {"price", "beds", "area", "zpid"};
+    private static final int BULK_IMPORT_SIZE = 10;
+    // Clear of the indexes app.seeding.synthetic-count may already have imported
+    private static final long BULK_IMPORT_FIRST_INDEX = 1_000_000_000L;
+    private static final AtomicLong syntheticSequence = new AtomicLong(BULK_IMPORT_FIRST_INDEX);
+
+    public record Request(String endpoint, HttpRequest httpRequest) {}
+
+    public record Account(String email, String password, String token) {}
+
+    private final String baseUrl;
+    private final List<Listing> listings;
+    private final SyntheticListingGenerator generator;
+    private final List<Account> accounts;
+    private final ObjectMapper objectMapper;
+
+    public TrafficMix(String baseUrl, List<Listing> listings, SyntheticListingGenerator generator, List<Account> accounts,
+                      ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.listings = listings;
+        this.generator = generator;
+        this.accounts = accounts;
+        this.objectMapper = objectMapper;
+    }
+
+    // 60% search, 22% detail, 8% saved list, 6% save, 3% login, 1% bulk import
+    public Request next(Random random) throws Exception {
+        int roll = random.nextInt(100);
+        if (roll < 60) return search(random);
+        if (roll < 82) return detail(random);
+        if (roll < 90) return saved(random);
+        if (roll < 96) return save(random);
+        if (roll < 99) return login(random);
+        return bulkImport(random);
+    }
+
+    // Same parameters and defaults as buildApiListingSearchUrl.ts
+    private Request search(Random random) {
+        StringBuilder query = new StringBuilder();
+        Listing sample = pick(random, listings);
+
+        if (random.nextInt(100) < 50 && sample.getPrice() != null) {
+            int price = sample.getPrice().intValue();
+            append(query, "minPrice", String.valueOf(Math.max(0, price - 500 - random.nextInt(500))));
+            append(query, "maxPrice", String.valueOf(price + 500 + random.nextInt(1000)));
+        }
+        if (random.nextInt(100) < 20 && sample.getArea() != null) {
+            append(query, "minArea", String.valueOf(Math.max(0, sample.getArea() - 400)));
+        }
+        if (random.nextInt(100) < 40 && sample.getAddressCity() != null) {
+            append(query, "cities", sample.getAddressCity());
+        }
+        if (random.nextInt(100) < 15 && sample.getAddressZipcode() != null) {
+            append(query, "zipCodes", sample.getAddressZipcode());
+        }
+        if (random.nextInt(100) < 30) {
+            append(query, "beds", String.valueOf(1 + random.nextInt(4)));
+        }
+        if (random.nextInt(100) < 20) {
+            append(query, "baths", String.valueOf(1 + random.nextInt(3)));
+        }
+
+        // Most visitors stay on the first pages
+        append(query, "page", String.valueOf(random.nextInt(100) < 70 ? 0 : random.nextInt(5)));
+        append(query, "size", "21");
+        if (random.nextInt(100) < 50) {
+            append(query, "sortBy", SORT_FIELDS[random.nextInt(SORT_FIELDS.length)]);
+            append(query, "sortDir", random.nextBoolean() ? "asc" : "desc");
+        }
+
+        return new Request(SEARCH, get("/listings?" + query, null));
+    }
+
+    private Request detail(Random random) {
+        return new Request(DETAIL, get("/listings/" + pick(random, listings).getZpid(), null));
+    }
+
+    private Request saved(Random random) {
+        return new Request(SAVED, get("/users/me/saved", pick(random, accounts).token()));
+    }
+
+    private Request save(Random random) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/me/saved/" + pick(random, listings).getZpid()))
+                .header("Authorization", "Bearer " + pick(random, accounts).token())
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return new Request(SAVE, request);
+    }
+
+    private Request login(Random random) throws Exception {
+        Account account = pick(random, accounts);
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("email", account.email())
+                .put("password", account.password());
+        return new Request(LOGIN, post("/auth/login", objectMapper.writeValueAsString(body)));
+    }
+
+    // Fresh synthetic listings, so every import inserts new rows
+    private Request bulkImport(Random random) throws Exception {
+        ArrayNode batch = objectMapper.createArrayNode();
+        for (int i = 0; i < BULK_IMPORT_SIZE; i++) {
+            batch.add(generator.generate(syntheticSequence.getAndIncrement()));
+        }
+        return new Request(BULK_IMPORT, post("/listings/bulk-import", objectMapper.writeValueAsString(batch)));
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static void append(StringBuilder query, String name, String value) {
+        if (!query.isEmpty()) {
+            query.append('&');
+        }
+        query.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+
+    private static <T> T pick(Random random, List<T> items) {
+        return items.get(random.nextInt(items.size()));
+    }
+}
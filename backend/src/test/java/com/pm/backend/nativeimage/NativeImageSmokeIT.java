@@ -0,0 +1,151 @@
+package com.pm.backend.nativeimage;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Starts the native executable on the default in-memory H2 database and exercises the paths that
+// depend on runtime hints: JPA entities, filtered searches, pre-compressed details and JWT parsing.
+// Runs in the native profile after the image is built: mvn -Pnative verify
+class NativeImageSmokeIT {
+    private static final String SECRET_KEY = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+    private static final long READY_TIMEOUT_MILLIS = 60_000;
+    private static final Pattern ZPID = Pattern.compile("\"zpid\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static Process process;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startExecutable() throws Exception {
+        Path executable = Path.of(System.getProperty("native.executable", "target/backend"));
+        assertTrue(Files.isExecutable(executable), "Native executable not found at " + executable);
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://localhost:" + port;
+
+        ProcessBuilder builder = new ProcessBuilder(executable.toString(), "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "native-smoke.log").toFile());
+        builder.environment().put("SECURITY_JWT_SECRET_KEY", SECRET_KEY);
+        builder.environment().put("SECURITY_JWT_EXPIRATION_TIME", "3600000");
+        builder.environment().put("SPRING_MAIL_USERNAME", "smoke@example.com");
+        builder.environment().put("SPRING_MAIL_PASSWORD", "smoke");
+
+        long started = System.nanoTime();
+        process = builder.start();
+        awaitReadiness();
+        long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        System.out.printf("Native image ready in %d ms (seeding included), RSS %s%n", readyMillis, residentSetSize());
+    }
+
+    @AfterAll
+    static void stopExecutable() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void servesSeededListings() throws Exception {
+        HttpResponse<String> page = get("/listings?page=0&size=20");
+        assertEquals(200, page.statusCode());
+        Matcher zpid = ZPID.matcher(page.body());
+        assertTrue(zpid.find(), "No listings in the first page");
+
+        HttpResponse<String> filtered = get("/listings?page=0&size=20&minPrice=500&beds=2");
+        assertEquals(200, filtered.statusCode());
+
+        HttpResponse<String> detail = get("/listings/" + zpid.group(1));
+        assertEquals(200, detail.statusCode());
+
+        HttpResponse<byte[]> gzipped = client.send(request("/listings/" + zpid.group(1))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, gzipped.statusCode());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+    }
+
+    @Test
+    void parsesSignedTokens() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("smoke@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)), SignatureAlgorithm.HS256)
+                .compact();
+
+        HttpResponse<String> response = client.send(request("/users/me")
+                .header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 500, "Token handling failed: " + response.statusCode() + " " + response.body());
+
+        HttpResponse<String> login = client.send(request("/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"smoke@example.com\",\"password\":\"wrong\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(login.statusCode() >= 400 && login.statusCode() < 500, "Unexpected login status " + login.statusCode());
+    }
+
+    private static void awaitReadiness() throws Exception {
+        long deadline = System.currentTimeMillis() + READY_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                fail("Native executable exited with " + process.exitValue() + ", see target/native-smoke.log");
+            }
+            try {
+                if (get("/actuator/health/readiness").statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+        fail("Native executable not ready after " + READY_TIMEOUT_MILLIS + " ms, see target/native-smoke.log");
+    }
+
+    private static String residentSetSize() throws IOException {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return "unavailable";
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.substring("VmRSS:".length()).trim())
+                .findFirst()
+                .orElse("unavailable");
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(request(path).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path));
+    }
+}
@@ -0,0 +1,61 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.EncodedListing;
+import com.pm.backend.dto.ListingView;
+import com.pm.backend.model.Listing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ListingJsonCacheTests {
+    private ListingJsonCache listingJsonCache;
+
+    @BeforeEach
+    void setUp() {
+        listingJsonCache = new ListingJsonCache(new ObjectMapper().findAndRegisterModules(), 100, 6);
+    }
+
+    @Test
+    void uncachedEncodingLeavesTheCacheAlone() {
+        for (int i = 0; i < 500; i++) {
+            assertNotNull(listingJsonCache.encodeUncached(listing(Integer.toString(i), LocalDateTime.now()), ListingView.CARD));
+        }
+        assertEquals(0, listingJsonCache.size());
+
+        Listing listing = listing("1", LocalDateTime.now());
+        EncodedListing cached = listingJsonCache.encode(listing, ListingView.CARD);
+        assertEquals(1, listingJsonCache.size());
+        assertSame(cached.getBody(), listingJsonCache.encodeUncached(listing, ListingView.CARD).getBody());
+        assertEquals(1, listingJsonCache.size());
+    }
+
+    @Test
+    void uncachedEncodingIgnoresAStaleEntry() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Listing listing = listing("1", updatedAt);
+        listingJsonCache.encode(listing, ListingView.DETAIL);
+
+        listing.setBeds(4);
+        listing.setUpdatedAt(updatedAt.plusMinutes(1));
+        EncodedListing fresh = listingJsonCache.encodeUncached(listing, ListingView.DETAIL);
+        assertEquals(listingJsonCache.encode(listing, ListingView.DETAIL).getBody().getValue(), fresh.getBody().getValue());
+        assertNotNull(fresh.getGzip());
+    }
+
+    private static Listing listing(String zpid, LocalDateTime updatedAt) {
+        Listing listing = new Listing();
+        listing.setZpid(zpid);
+        listing.setAddress(zpid + " Cache St");
+        listing.setPrice(new BigDecimal("1500.00"));
+        listing.setBeds(2);
+        listing.setUpdatedAt(updatedAt);
+        return listing;
+    }
+}
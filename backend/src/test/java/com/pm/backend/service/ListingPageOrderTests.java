@@ -0,0 +1,111 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.model.Listing;
+import com.pm.backend.repository.ListingRepository;
+import com.pm.backend.specification.ListingSpecification;
+import com.pm.backend.util.ListingSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The search index and the database fallback must page in the same order, since a write can switch a
+// client from one to the other between pages. Values are drawn from a handful each, so most rows tie.
+// H2 is told to order nulls as Postgres does.
+@SpringBootTest(properties = {"app.seeding.enabled=false", "app.listing-search-index.refresh-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:page-order;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH"})
+class ListingPageOrderTests {
+    private static final String[] CITIES = {"Orlando", "Oviedo", "Winter Park"};
+    private static final String[] SORTS = {"zpid", "price", "beds", "baths", "area", "addressCity", "addressState",
+            "createdAt", "updatedAt"};
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingSearchIndexService listingSearchIndexService;
+
+    @BeforeEach
+    void load() {
+        if (listingRepository.count() > 0) {
+            return;
+        }
+        Random random = new Random(9);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Listing listing = new Listing();
+            listing.setZpid(Integer.toString(random.nextInt(1_000_000)) + "-" + i);
+            listing.setAddress(i + " Order St");
+            listing.setAddressStreet(i + " Order St");
+            listing.setAddressCity(CITIES[random.nextInt(CITIES.length)]);
+            listing.setAddressState(random.nextBoolean() ? "FL" : "GA");
+            listing.setAddressZipcode("32801");
+            listing.setLatitude(new BigDecimal("28.5"));
+            listing.setLongitude(new BigDecimal("-81.3"));
+            listing.setImgSrc("https://example.com/" + i + ".jpg");
+            listing.setDetailUrl("https://example.com/homedetails/" + i);
+            listing.setStatusText("For Rent");
+            listing.setPrice(random.nextInt(8) == 0 ? null : BigDecimal.valueOf(1_000 + 250 * random.nextInt(4)));
+            listing.setBeds(random.nextInt(8) == 0 ? null : 1 + random.nextInt(3));
+            listing.setBaths(random.nextInt(8) == 0 ? null : 1 + random.nextInt(2));
+            listing.setArea(random.nextInt(8) == 0 ? null : 800 + 200 * random.nextInt(3));
+            listing.setAvailabilityDate(base.plusDays(random.nextInt(3)));
+            listings.add(listing);
+        }
+        listingRepository.saveAll(listings);
+        listingSearchIndexService.invalidateAll();
+        listingSearchIndexService.refresh();
+    }
+
+    @Test
+    void indexAndDatabasePageTiesAlike() {
+        ListingFilterCriteriaDTO filters = new ListingFilterCriteriaDTO();
+        filters.setCities(List.of("Orlando", "Winter Park"));
+        for (ListingFilterCriteriaDTO criteria : new ListingFilterCriteriaDTO[]{new ListingFilterCriteriaDTO(), filters}) {
+            for (String property : SORTS) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    assertSamePages(criteria, property, direction);
+                }
+            }
+        }
+    }
+
+    private void assertSamePages(ListingFilterCriteriaDTO filters, String property, Sort.Direction direction) {
+        ListingSearchIndex index = listingSearchIndexService.current();
+        Set<String> seen = new HashSet<>();
+        int size = 7;
+        for (int page = 0; ; page++) {
+            PageRequest pageable = PageRequest.of(page, size, ListingService.pageSort(property, direction));
+            Page<Listing> fromDatabase = listingRepository.findAll(ListingSpecification.withFilters(filters), pageable);
+            ListingSearchIndex.Hits fromIndex = index.search(filters, ListingSearchIndex.SortField.of(property),
+                    direction == Sort.Direction.DESC, page * size, size);
+
+            List<String> zpids = fromDatabase.getContent().stream().map(Listing::getZpid).toList();
+            String search = filters.getCities() + " by " + property + " " + direction + " page " + page;
+            assertEquals(fromDatabase.getTotalElements(), fromIndex.total(), search);
+            assertEquals(zpids, fromIndex.zpids(), search);
+            for (String zpid : zpids) {
+                assertEquals(true, seen.add(zpid), "repeated " + zpid + " on " + search);
+            }
+            if (zpids.isEmpty()) {
+                assertEquals(fromDatabase.getTotalElements(), seen.size(), search);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.pm.backend.service;
+
+import com.pm.backend.dto.ListingRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Events seen by filtered subscribers of GET /listings/stream as a listing moves between cities.
+// Response headers are only flushed with the first write, so heartbeats are quick to let subscribe return.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"app.seeding.enabled=false", "app.listing-stream.heartbeat-interval=200ms"})
+class ListingStreamServiceTests {
+    private static final String ZPID = "800001";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private ListingStreamService listingStreamService;
+
+    @Test
+    void updateOutOfAFilterIsSentAsRemoved() throws Exception {
+        List<String> orlando = subscribe("Orlando");
+        List<String> tampa = subscribe("Tampa");
+        List<String> miami = subscribe("Miami");
+        awaitSubscribers(3);
+
+        listingService.createListing(listing("Orlando"));
+        awaitEvent(orlando, "created " + ZPID);
+
+        listingService.updateListing(ZPID, listing("Tampa"));
+        awaitEvent(orlando, "removed " + ZPID);
+        awaitEvent(tampa, "updated " + ZPID);
+
+        // A bulk import merging over the listing moves it back
+        listingService.bulkImportListings(List.of(listing("Orlando")));
+        awaitEvent(tampa, "removed " + ZPID);
+        awaitEvent(orlando, "updated " + ZPID);
+
+        listingService.deleteListing(ZPID);
+        awaitEvent(orlando, "deleted " + ZPID);
+
+        assertEquals(List.of("created " + ZPID, "removed " + ZPID, "updated " + ZPID, "deleted " + ZPID), snapshot(orlando));
+        assertEquals(List.of("updated " + ZPID, "removed " + ZPID), snapshot(tampa));
+        // Never matched, before or after
+        assertEquals(List.of(), snapshot(miami));
+    }
+
+    // Collects "<event> <zpid>" for each event on the stream
+    private List<String> subscribe(String city) throws Exception {
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/listings/stream?cities=" + city))
+                        .header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        List<String> events = new ArrayList<>();
+        Thread.ofVirtual().start(() -> {
+            String[] event = new String[1];
+            response.body().forEach(line -> {
+                if (line.startsWith("event:")) {
+                    event[0] = line.substring("event:".length());
+                } else if (line.startsWith("data:") && event[0] != null) {
+                    String zpid = line.replaceAll(".*\"zpid\":\"([^\"]*)\".*", "$1");
+                    synchronized (events) {
+                        events.add(event[0] + " " + zpid);
+                    }
+                    event[0] = null;
+                }
+            });
+        });
+        return events;
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        await(() -> listingStreamService.subscriberCount() >= count);
+    }
+
+    private static void awaitEvent(List<String> events, String event) throws InterruptedException {
+        await(() -> snapshot(events).contains(event));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<String> snapshot(List<String> events) {
+        synchronized (events) {
+            return List.copyOf(events);
+        }
+    }
+
+    private static ListingRequestDTO listing(String city) {
+        ListingRequestDTO listing = new ListingRequestDTO();
+        listing.setZpid(ZPID);
+        listing.setAddress("1 Stream St, " + city + ", FL 32801");
+        listing.setAddressStreet("1 Stream St");
+        listing.setAddressCity(city);
+        listing.setAddressState("FL");
+        listing.setAddressZipcode("32801");
+        listing.setLatLong(new ListingRequestDTO.LatLong(new BigDecimal("28.5"), new BigDecimal("-81.3")));
+        listing.setImgSrc("https://example.com/" + ZPID + ".jpg");
+        listing.setDetailUrl("https://example.com/homedetails/" + ZPID);
+        listing.setStatusText("For Rent");
+        listing.setPrice("$1,500/mo");
+        return listing;
+    }
+}
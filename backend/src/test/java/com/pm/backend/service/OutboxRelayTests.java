@@ -0,0 +1,207 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.dto.ListingChangeDTO;
+import com.pm.backend.dto.ListingRequestDTO;
+import com.pm.backend.model.ListingChangeType;
+import com.pm.backend.model.ListingOutboxEvent;
+import com.pm.backend.repository.ListingOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Listing writes relayed to the NDJSON sink. The scheduled relay is pushed out of the way and the gap
+// grace is longer than the test, so only a recorded rollback lets a reader pass a gap.
+@SpringBootTest(properties = {"app.seeding.enabled=false", "app.outbox.ndjson.enabled=true",
+        "app.outbox.relay-interval=1h", "app.outbox.batch-size=3", "app.outbox.gap-grace=1h"})
+class OutboxRelayTests {
+    private static final AtomicInteger NEXT_ZPID = new AtomicInteger(900_000);
+
+    @DynamicPropertySource
+    static void outboxFile(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("outbox");
+        registry.add("app.outbox.ndjson.path", () -> directory.resolve("listing-changes.ndjson").toString());
+    }
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private ListingOutboxService listingOutboxService;
+
+    @Autowired
+    private ListingOutboxRepository listingOutboxRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private NdjsonOutboxSink sink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void drain() {
+        outboxRelay.relay();
+    }
+
+    @Test
+    void relayDeliversEveryChangeInOrderAndAdvancesTheOffset() throws IOException {
+        int delivered = lines().size();
+        String first = nextZpid();
+        String second = nextZpid();
+        String imported = nextZpid();
+
+        listingService.createListing(listing(first, "$1,500/mo"));
+        listingService.createListing(listing(second, "$1,600/mo"));
+        listingService.updateListing(first, listing(first, "$1,400/mo"));
+        listingService.deleteListing(second);
+        // A bulk import merging over an existing zpid is an update
+        listingService.bulkImportListings(List.of(listing(first, "$1,300/mo"), listing(imported, "$1,200/mo")));
+
+        outboxRelay.relay();
+
+        List<JsonNode> changes = lines().subList(delivered, lines().size());
+        assertEquals(List.of(first + " CREATED", second + " CREATED", first + " UPDATED", second + " DELETED",
+                first + " UPDATED", imported + " CREATED"), describe(changes));
+        for (int i = 1; i < changes.size(); i++) {
+            assertEquals(changes.get(i - 1).get("id").asLong() + 1, changes.get(i).get("id").asLong());
+        }
+        assertEquals(listingOutboxService.getLastId(), changes.get(changes.size() - 1).get("id").asLong());
+        assertEquals(listingOutboxService.getLastId(), outboxRelay.getOffsets().get(sink.getName()));
+    }
+
+    @Test
+    void replayRedeliversFromTheGivenChange() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            listingService.createListing(listing(nextZpid(), "$1,500/mo"));
+        }
+        outboxRelay.relay();
+        List<JsonNode> before = lines();
+        long lastId = listingOutboxService.getLastId();
+
+        outboxRelay.replay(sink.getName(), lastId - 4);
+        assertEquals(lastId - 4, outboxRelay.getOffsets().get(sink.getName()));
+        outboxRelay.relay();
+
+        List<JsonNode> after = lines();
+        assertEquals(before.size() + 4, after.size());
+        assertEquals(describe(before.subList(before.size() - 4, before.size())), describe(after.subList(before.size(), after.size())));
+        assertEquals(lastId, outboxRelay.getOffsets().get(sink.getName()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotStallReaders() throws IOException {
+        String rolledBack = nextZpid();
+        String committed = nextZpid();
+        long lastId = listingOutboxService.getLastId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            listingService.createListing(listing(rolledBack, "$1,500/mo"));
+            status.setRollbackOnly();
+        });
+        listingService.createListing(listing(committed, "$1,500/mo"));
+
+        List<ListingChangeDTO> changes = listingOutboxService.getChanges(lastId, 100).getChanges();
+        assertEquals(1, changes.size());
+        assertEquals(committed, changes.get(0).getZpid());
+        assertEquals(lastId + 2, changes.get(0).getId());
+
+        outboxRelay.relay();
+        assertEquals(lastId + 2, outboxRelay.getOffsets().get(sink.getName()));
+        List<JsonNode> lines = lines();
+        assertEquals(List.of(committed + " CREATED"), describe(lines.subList(lines.size() - 1, lines.size())));
+    }
+
+    @Test
+    void readersWaitForAWriteStillInFlight() throws Exception {
+        long lastId = listingOutboxService.getLastId();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String slow = nextZpid();
+
+        // Holds the next outbox id in an open transaction while a later write commits
+        Thread writer = Thread.ofPlatform().start(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            listingOutboxRepository.saveAndFlush(new ListingOutboxEvent(slow, ListingChangeType.DELETED, LocalDateTime.now(), null));
+            inserted.countDown();
+            try {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        String fast = nextZpid();
+        listingService.createListing(listing(fast, "$1,500/mo"));
+
+        assertEquals(List.of(), listingOutboxService.readAfter(lastId, 100));
+
+        release.countDown();
+        writer.join(10_000);
+        List<String> zpids = new ArrayList<>();
+        for (ListingChangeDTO change : listingOutboxService.readAfter(lastId, 100)) {
+            zpids.add(change.getZpid());
+        }
+        assertEquals(List.of(slow, fast), zpids);
+    }
+
+    private List<JsonNode> lines() throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        if (Files.exists(sink.getPath())) {
+            for (String line : Files.readAllLines(sink.getPath())) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> describe(List<JsonNode> changes) {
+        return changes.stream().map(change -> change.get("zpid").asText() + " " + change.get("type").asText()).toList();
+    }
+
+    private static String nextZpid() {
+        return Integer.toString(NEXT_ZPID.incrementAndGet());
+    }
+
+    private static ListingRequestDTO listing(String zpid, String price) {
+        ListingRequestDTO listing = new ListingRequestDTO();
+        listing.setZpid(zpid);
+        listing.setAddress(zpid + " Outbox St, Orlando, FL 32801");
+        listing.setAddressStreet(zpid + " Outbox St");
+        listing.setAddressCity("Orlando");
+        listing.setAddressState("FL");
+        listing.setAddressZipcode("32801");
+        listing.setLatLong(new ListingRequestDTO.LatLong(new BigDecimal("28.5"), new BigDecimal("-81.3")));
+        listing.setImgSrc("https://example.com/" + zpid + ".jpg");
+        listing.setDetailUrl("https://example.com/homedetails/" + zpid);
+        listing.setStatusText("For Rent");
+        listing.setPrice(price);
+        listing.setBeds(2);
+        listing.setBaths(1);
+        return listing;
+    }
+}
@@ -0,0 +1,62 @@
+package com.pm.backend.service;
+
+import com.pm.backend.model.PhotoUrlTemplate;
+import com.pm.backend.repository.PhotoUrlTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhotoTemplateServiceTests {
+    private static final String BASE_URL = "https://photos.zillowstatic.com/fp/{photoKey}-p_e.jpg";
+
+    private PhotoUrlTemplateRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private PhotoTemplateService photoTemplateService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PhotoUrlTemplateRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        photoTemplateService = new PhotoTemplateService(repository, transactionManager);
+    }
+
+    @Test
+    void cacheHitsOpenNoTransaction() {
+        PhotoUrlTemplate template = new PhotoUrlTemplate(BASE_URL);
+        when(repository.findByBaseUrl(BASE_URL)).thenReturn(Optional.of(template));
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(template, photoTemplateService.resolve(BASE_URL));
+        }
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(repository, times(1)).findByBaseUrl(BASE_URL);
+    }
+
+    @Test
+    void losingAnInsertRaceReadsTheWinnersRow() {
+        PhotoUrlTemplate winner = new PhotoUrlTemplate(BASE_URL);
+        when(repository.findByBaseUrl(BASE_URL)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk base_url"));
+
+        assertSame(winner, photoTemplateService.resolve(BASE_URL));
+        assertSame(winner, photoTemplateService.resolve(BASE_URL));
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void blankBaseUrlHasNoTemplate() {
+        assertNull(photoTemplateService.resolve(" "));
+        verify(transactionManager, times(0)).getTransaction(any());
+    }
+}
@@ -0,0 +1,59 @@
+package com.pm.backend.service;
+
+import com.pm.backend.repository.ListingRepository;
+import com.pm.backend.repository.SavedListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SavedListingServiceTests {
+    private SavedListingRepository savedListingRepository;
+    private SavedListingService savedListingService;
+
+    @BeforeEach
+    void setUp() {
+        savedListingRepository = mock(SavedListingRepository.class);
+        savedListingService = new SavedListingService(savedListingRepository, mock(ListingRepository.class),
+                mock(CacheInvalidationService.class));
+    }
+
+    @Test
+    void cachesTheSavedSet() {
+        when(savedListingRepository.findListingZpidsByUserId(1L)).thenReturn(List.of("a"));
+
+        assertTrue(savedListingService.isSaved(1L, "a"));
+        assertFalse(savedListingService.isSaved(1L, "b"));
+        verify(savedListingRepository, times(1)).findListingZpidsByUserId(1L);
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceEvicts() {
+        when(savedListingRepository.findListingZpidsByUserId(1L)).thenReturn(List.of("a"), List.of("a", "b"));
+
+        assertFalse(savedListingService.isSaved(1L, "b"));
+        savedListingService.invalidate(CacheInvalidationService.EntityType.SAVED_LISTINGS, "1");
+        assertTrue(savedListingService.isSaved(1L, "b"));
+    }
+
+    @Test
+    void setLoadedAcrossAnEvictionIsNotCached() {
+        // The first load reads the pre-change set and the change's eviction lands before it is cached
+        when(savedListingRepository.findListingZpidsByUserId(1L))
+                .thenAnswer(invocation -> {
+                    savedListingService.invalidate(CacheInvalidationService.EntityType.SAVED_LISTINGS, "1");
+                    return List.of("a");
+                })
+                .thenReturn(List.of("a", "b"));
+
+        assertFalse(savedListingService.isSaved(1L, "b"));
+        assertTrue(savedListingService.isSaved(1L, "b"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.pm.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.backend.model.Listing;
+import com.pm.backend.model.SavedSearch;
+import com.pm.backend.repository.ListingRepository;
+import com.pm.backend.repository.SavedSearchAlertRepository;
+import com.pm.backend.repository.SavedSearchRepository;
+import com.pm.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SavedSearchServiceTests {
+    private SavedSearchRepository savedSearchRepository;
+    private SavedSearchService savedSearchService;
+
+    @BeforeEach
+    void setUp() {
+        savedSearchRepository = mock(SavedSearchRepository.class);
+        SavedSearchAlertRepository alertRepository = mock(SavedSearchAlertRepository.class);
+        when(alertRepository.insertIfAbsent(anyLong(), anyString(), any())).thenReturn(1);
+        when(savedSearchRepository.findExistingIds(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+
+        savedSearchService = new SavedSearchService(savedSearchRepository, alertRepository,
+                mock(ListingRepository.class), mock(UserRepository.class), mock(EmailService.class),
+                new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class),
+                mock(CacheInvalidationService.class));
+    }
+
+    @Test
+    void changeArrivingDuringARefreshSurvivesTheSwap() {
+        SavedSearch threeBeds = new SavedSearch(null, "Three beds", "{\"beds\":3}");
+        ReflectionTestUtils.setField(threeBeds, "id", 7L);
+        when(savedSearchRepository.findById(7L)).thenReturn(Optional.of(threeBeds));
+
+        // The search is saved through another instance after the refresh read its snapshot
+        when(savedSearchRepository.findAllCriteria()).thenAnswer(invocation -> {
+            savedSearchService.invalidate(CacheInvalidationService.EntityType.SAVED_SEARCH, "7");
+            return List.of();
+        });
+        savedSearchService.refreshIndex();
+
+        assertEquals(1, savedSearchService.recordMatches(List.of(listing("1", 3))));
+        assertEquals(0, savedSearchService.recordMatches(List.of(listing("2", 2))));
+    }
+
+    @Test
+    void removalArrivingDuringARefreshSurvivesTheSwap() {
+        SavedSearch threeBeds = new SavedSearch(null, "Three beds", "{\"beds\":3}");
+        ReflectionTestUtils.setField(threeBeds, "id", 7L);
+        SavedSearchRepository.SavedSearchCriteriaView view = mock(SavedSearchRepository.SavedSearchCriteriaView.class);
+        when(view.getId()).thenReturn(7L);
+        when(view.getCriteria()).thenReturn(threeBeds.getCriteria());
+        when(savedSearchRepository.findById(7L)).thenReturn(Optional.empty());
+
+        // The snapshot still holds the search, but its deletion reached this instance meanwhile
+        when(savedSearchRepository.findAllCriteria()).thenAnswer(invocation -> {
+            savedSearchService.invalidate(CacheInvalidationService.EntityType.SAVED_SEARCH, "7");
+            return List.of(view);
+        });
+        savedSearchService.refreshIndex();
+
+        assertEquals(0, savedSearchService.recordMatches(List.of(listing("1", 3))));
+    }
+
+    private static Listing listing(String zpid, int beds) {
+        Listing listing = new Listing();
+        listing.setZpid(zpid);
+        listing.setBeds(beds);
+        return listing;
+    }
+}
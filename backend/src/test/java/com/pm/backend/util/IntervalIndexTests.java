@@ -0,0 +1,82 @@
+package com.pm.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IntervalIndexTests {
+    private record Range(int id, long start, long end) {}
+
+    @Test
+    void stabbingMatchesABruteForceScan() {
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            List<Range> ranges = ranges(random, random.nextInt(300));
+            IntervalIndex<Range> index = IntervalIndex.of(ranges, Range::start, Range::end);
+            List<Range> nonEmpty = ranges.stream().filter(range -> range.start() <= range.end()).toList();
+            assertEquals(nonEmpty.size(), index.size());
+            assertEquals(sorted(nonEmpty), sorted(index.values()));
+
+            List<Long> points = new ArrayList<>(List.of(Long.MIN_VALUE, Long.MAX_VALUE));
+            for (Range range : ranges) {
+                // Both bounds and their neighbours, where an off-by-one would show
+                points.add(range.start());
+                points.add(range.end());
+                points.add(range.start() - 1);
+                points.add(range.end() + 1);
+            }
+            for (int i = 0; i < 50; i++) {
+                points.add((long) random.nextInt(1_200) - 100);
+            }
+
+            for (long point : points) {
+                List<Range> expected = new ArrayList<>();
+                for (Range range : nonEmpty) {
+                    if (range.start() <= point && point <= range.end()) {
+                        expected.add(range);
+                    }
+                }
+                List<Range> found = new ArrayList<>();
+                index.stab(point, found::add);
+                assertEquals(sorted(expected), sorted(found), "point " + point);
+            }
+        }
+    }
+
+    @Test
+    void onlyEmptyRangesGiveTheEmptyIndex() {
+        IntervalIndex<Range> index = IntervalIndex.of(List.of(new Range(1, 5, 4)), Range::start, Range::end);
+        assertSame(IntervalIndex.empty(), index);
+        List<Range> found = new ArrayList<>();
+        index.stab(5, found::add);
+        assertEquals(List.of(), found);
+    }
+
+    // Shared bounds and open ends are common, as with price filters that only set a maximum
+    private static List<Range> ranges(Random random, int count) {
+        List<Range> ranges = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            long start = switch (random.nextInt(6)) {
+                case 0 -> Long.MIN_VALUE;
+                case 1 -> 100L * random.nextInt(10);
+                default -> random.nextInt(1_000);
+            };
+            long end = switch (random.nextInt(6)) {
+                case 0 -> Long.MAX_VALUE;
+                case 1 -> 100L * random.nextInt(10);
+                default -> start == Long.MIN_VALUE ? random.nextInt(1_000) : start + random.nextInt(300) - 20;
+            };
+            ranges.add(new Range(id, start, end));
+        }
+        return ranges;
+    }
+
+    private static List<Integer> sorted(List<Range> ranges) {
+        return ranges.stream().map(Range::id).sorted().toList();
+    }
+}
@@ -0,0 +1,300 @@
+package com.pm.backend.util;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.model.Listing;
+import com.pm.backend.specification.ListingSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Every search is checked against ListingSpecification.matches and a plain sort of the matches by the
+// requested field, nulls last ascending and first descending, ties broken by zpid
+class ListingSearchIndexTests {
+    private static final String[] CITIES = {"Orlando", "Oviedo", "Winter Park", "Kissimmee"};
+    private static final String[] STATES = {"FL", "GA"};
+    private static final String[] ZIPCODES = {"32801", "32765", "32789", "34741"};
+    private static final String[] VARIABLE_DATA_TYPES = {"TIME_ON_INFO", "PRICE_REDUCTION", "3D_HOME"};
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int SEGMENT_ROWS = 16_384;
+
+    @Test
+    void randomSearchesMatchTheReference() {
+        Random random = new Random(7);
+        for (int size : new int[]{0, 1, 63, 64, 65, 500, 3_000}) {
+            List<Listing> listings = listings(random, size);
+            ListingSearchIndex index = new ListingSearchIndex(rows(listings), null, PredicateKernels.create(false));
+            assertEquals(size, index.size());
+            for (int search = 0; search < 400; search++) {
+                ListingFilterCriteriaDTO filters = search % 4 == 0 ? new ListingFilterCriteriaDTO() : filters(random);
+                ListingSearchIndex.SortField sort = ListingSearchIndex.SortField.values()[random.nextInt(ListingSearchIndex.SortField.values().length)];
+                int limit = 1 + random.nextInt(30);
+                int offset = random.nextInt(4) == 0 ? limit * random.nextInt(20) : 0;
+                assertSearch(index, listings, filters, sort, random.nextBoolean(), offset, limit);
+            }
+        }
+    }
+
+    @Test
+    void pagesPastTheEndAreEmpty() {
+        List<Listing> listings = listings(new Random(1), 100);
+        ListingSearchIndex index = new ListingSearchIndex(rows(listings), null, PredicateKernels.create(false));
+
+        ListingSearchIndex.Hits hits = index.search(new ListingFilterCriteriaDTO(), ListingSearchIndex.SortField.PRICE, false, 100, 20);
+        assertEquals(List.of(), hits.zpids());
+        assertEquals(100, hits.total());
+    }
+
+    @Test
+    void wholeCatalogPagesWalkEveryRowOnce() {
+        List<Listing> listings = listings(new Random(2), 1_000);
+        ListingSearchIndex index = new ListingSearchIndex(rows(listings), null, PredicateKernels.create(false));
+        for (ListingSearchIndex.SortField sort : ListingSearchIndex.SortField.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                // A window covering everything, which takes the presorted walk or the heap depending on the field
+                assertSearch(index, listings, new ListingFilterCriteriaDTO(), sort, descending, 0, 1_000);
+                assertSearch(index, listings, new ListingFilterCriteriaDTO(), sort, descending, 990, 20);
+            }
+        }
+    }
+
+    @Test
+    void unknownDictionaryValuesMatchNothing() {
+        List<Listing> listings = listings(new Random(3), 200);
+        ListingSearchIndex index = new ListingSearchIndex(rows(listings), null, PredicateKernels.create(false));
+
+        ListingFilterCriteriaDTO filters = new ListingFilterCriteriaDTO();
+        filters.setCities(List.of("Nowhere"));
+        assertEquals(0, index.search(filters, ListingSearchIndex.SortField.ZPID, false, 0, 20).total());
+    }
+
+    @Test
+    void rangesOnSegmentBoundsMatchTheReference() {
+        // Segments hold 16,384 rows; sizes that are not a multiple of it, or of 64, leave a partial
+        // last segment and a partial last bitmap word
+        Random random = new Random(4);
+        ForkJoinPool workers = new ForkJoinPool(3);
+        try {
+            for (int size : new int[]{SEGMENT_ROWS, SEGMENT_ROWS + 1, 2 * SEGMENT_ROWS + 37}) {
+                List<Listing> listings = clustered(random, size);
+                ListingSearchIndex sequential = new ListingSearchIndex(rows(listings), null, PredicateKernels.create(false));
+                ListingSearchIndex parallel = new ListingSearchIndex(rows(listings), workers, PredicateKernels.create(true));
+
+                List<Listing> ordered = new ArrayList<>(listings);
+                ordered.sort(Comparator.comparing(Listing::getZpid));
+                for (int from = 0; from < size; from += SEGMENT_ROWS) {
+                    List<Listing> segment = ordered.subList(from, Math.min(from + SEGMENT_ROWS, size));
+                    for (ListingFilterCriteriaDTO filters : boundaryFilters(segment)) {
+                        for (ListingSearchIndex index : new ListingSearchIndex[]{sequential, parallel}) {
+                            ListingSearchIndex.SortField sort = ListingSearchIndex.SortField.values()[random.nextInt(ListingSearchIndex.SortField.values().length)];
+                            int offset = random.nextInt(3) == 0 ? random.nextInt(2 * SEGMENT_ROWS) : 0;
+                            assertSearch(index, listings, filters, sort, random.nextBoolean(), offset, 1 + random.nextInt(50));
+                        }
+                    }
+                }
+            }
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    // The segment's smallest and largest price and area, a cent or a square foot either side of them,
+    // and each alone, so ranges skip, fully cover or partly overlap the segment
+    private static List<ListingFilterCriteriaDTO> boundaryFilters(List<Listing> segment) {
+        BigDecimal minPrice = segment.stream().map(Listing::getPrice).filter(price -> price != null).min(Comparator.naturalOrder()).orElseThrow();
+        BigDecimal maxPrice = segment.stream().map(Listing::getPrice).filter(price -> price != null).max(Comparator.naturalOrder()).orElseThrow();
+        int minArea = segment.stream().map(Listing::getArea).filter(area -> area != null).min(Comparator.naturalOrder()).orElseThrow();
+        int maxArea = segment.stream().map(Listing::getArea).filter(area -> area != null).max(Comparator.naturalOrder()).orElseThrow();
+        BigDecimal cent = new BigDecimal("0.01");
+
+        List<ListingFilterCriteriaDTO> filters = new ArrayList<>();
+        for (BigDecimal[] range : new BigDecimal[][]{
+                {minPrice, maxPrice}, {minPrice, minPrice}, {maxPrice, maxPrice},
+                {minPrice.add(cent), maxPrice.subtract(cent)}, {minPrice.subtract(cent), maxPrice.add(cent)},
+                {null, minPrice.subtract(cent)}, {maxPrice.add(cent), null}, {null, minPrice}, {maxPrice, null}}) {
+            ListingFilterCriteriaDTO byPrice = new ListingFilterCriteriaDTO();
+            byPrice.setMinPrice(range[0]);
+            byPrice.setMaxPrice(range[1]);
+            filters.add(byPrice);
+        }
+        for (Integer[] range : new Integer[][]{
+                {minArea, maxArea}, {minArea, minArea}, {maxArea, maxArea}, {minArea + 1, maxArea - 1},
+                {null, minArea - 1}, {maxArea + 1, null}}) {
+            ListingFilterCriteriaDTO byArea = new ListingFilterCriteriaDTO();
+            byArea.setMinArea(range[0]);
+            byArea.setMaxArea(range[1]);
+            byArea.setBeds(3);
+            filters.add(byArea);
+        }
+        ListingFilterCriteriaDTO both = new ListingFilterCriteriaDTO();
+        both.setMinPrice(minPrice);
+        both.setMaxPrice(maxPrice);
+        both.setMinArea(minArea);
+        both.setMaxArea(maxArea);
+        filters.add(both);
+        return filters;
+    }
+
+    // Price and area rise with zpid, as when listings are imported in batches, so segments cover
+    // mostly disjoint ranges. Consecutive segments share a value at their edges, and every other segment
+    // has rows missing one, which it stores as the largest value
+    private static List<Listing> clustered(Random random, int count) {
+        List<Listing> listings = listings(random, count);
+        for (int i = 0; i < count; i++) {
+            Listing listing = listings.get(i);
+            boolean missing = (i / SEGMENT_ROWS) % 2 == 1 && random.nextInt(50) == 0;
+            listing.setZpid(String.format("%08d", i));
+            listing.setPrice(missing ? null : BigDecimal.valueOf(10_000_000L + 1_000L * (i / 7), 2));
+            listing.setArea(missing && random.nextBoolean() ? null : 500 + i / 12);
+        }
+        return listings;
+    }
+
+    static void assertSearch(ListingSearchIndex index, List<Listing> listings, ListingFilterCriteriaDTO filters,
+                             ListingSearchIndex.SortField sort, boolean descending, int offset, int limit) {
+        List<Listing> matches = new ArrayList<>();
+        for (Listing listing : listings) {
+            if (ListingSpecification.matches(filters, listing)) {
+                matches.add(listing);
+            }
+        }
+        Comparator<Listing> order = Comparator.comparing(sortKey(sort), Comparator.nullsLast(Comparator.naturalOrder()));
+        order = order.thenComparing(Listing::getZpid);
+        matches.sort(descending ? order.reversed() : order);
+        List<String> page = matches.subList(Math.min(offset, matches.size()), Math.min(offset + limit, matches.size()))
+                .stream().map(Listing::getZpid).toList();
+
+        ListingSearchIndex.Hits hits = index.search(filters, sort, descending, offset, limit);
+        String search = filters + " by " + sort + (descending ? " desc" : " asc") + " offset " + offset + " limit " + limit;
+        assertEquals(matches.size(), hits.total(), search);
+        assertEquals(page, hits.zpids(), search);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Listing, Comparable<Object>> sortKey(ListingSearchIndex.SortField sort) {
+        Function<Listing, Comparable> key = switch (sort) {
+            case ZPID -> Listing::getZpid;
+            case PRICE -> Listing::getPrice;
+            case BEDS -> Listing::getBeds;
+            case BATHS -> Listing::getBaths;
+            case AREA -> Listing::getArea;
+            case CITY -> Listing::getAddressCity;
+            case STATE -> Listing::getAddressState;
+            case CREATED_AT -> Listing::getCreatedAt;
+            case UPDATED_AT -> Listing::getUpdatedAt;
+        };
+        return (Function) key;
+    }
+
+    // Few distinct values and plenty of nulls, so ties and missing values are common
+    static List<Listing> listings(Random random, int count) {
+        List<Listing> listings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Listing listing = new Listing();
+            listing.setZpid(Integer.toString(random.nextInt(1_000_000_000)) + "-" + i);
+            listing.setPrice(random.nextInt(20) == 0 ? null : BigDecimal.valueOf(50_000 + 2_500L * random.nextInt(60) + random.nextInt(3), 2));
+            listing.setArea(random.nextInt(15) == 0 ? null : 300 + 50 * random.nextInt(40));
+            listing.setBeds(random.nextInt(10) == 0 ? null : 1 + random.nextInt(5));
+            listing.setBaths(random.nextInt(10) == 0 ? null : 1 + random.nextInt(4));
+            listing.setAddressCity(pick(random, CITIES));
+            listing.setAddressState(pick(random, STATES));
+            listing.setAddressZipcode(pick(random, ZIPCODES));
+            listing.setVariableDataType(pick(random, VARIABLE_DATA_TYPES));
+            listing.setAvailabilityDate(random.nextInt(3) == 0 ? null : BASE.plusDays(random.nextInt(90)));
+            listing.setHasAirConditioning(flag(random));
+            listing.setHasFireplace(flag(random));
+            listing.setHasPool(flag(random));
+            listing.setHasSpa(flag(random));
+            listing.setCreatedAt(random.nextInt(20) == 0 ? null : BASE.plusMinutes(random.nextInt(500)));
+            listing.setUpdatedAt(random.nextInt(20) == 0 ? null : BASE.plusSeconds(random.nextInt(1_000_000)));
+            listings.add(listing);
+        }
+        return listings;
+    }
+
+    static List<ListingSearchIndex.Row> rows(List<Listing> listings) {
+        return listings.stream().map(listing -> new ListingSearchIndex.Row(listing.getZpid(), listing.getPrice(),
+                listing.getArea(), listing.getBeds(), listing.getBaths(), listing.getAddressCity(),
+                listing.getAddressState(), listing.getAddressZipcode(), listing.getVariableDataType(),
+                listing.getAvailabilityDate(), listing.getHasAirConditioning(), listing.getHasFireplace(),
+                listing.getHasPool(), listing.getHasSpa(), listing.getCreatedAt(), listing.getUpdatedAt())).toList();
+    }
+
+    // Bounds off the cent grid and inverted ranges included
+    private static ListingFilterCriteriaDTO filters(Random random) {
+        ListingFilterCriteriaDTO filters = new ListingFilterCriteriaDTO();
+        if (random.nextInt(3) == 0) {
+            filters.setMinPrice(BigDecimal.valueOf(40_000 + random.nextInt(160_000), 2 + random.nextInt(2)));
+        }
+        if (random.nextInt(3) == 0) {
+            filters.setMaxPrice(BigDecimal.valueOf(40_000 + random.nextInt(160_000), 2 + random.nextInt(2)));
+        }
+        if (random.nextInt(4) == 0) {
+            filters.setMinArea(250 + random.nextInt(2_000));
+        }
+        if (random.nextInt(4) == 0) {
+            filters.setMaxArea(250 + random.nextInt(2_000));
+        }
+        if (random.nextInt(4) == 0) {
+            filters.setBeds(random.nextInt(7));
+        }
+        if (random.nextInt(5) == 0) {
+            filters.setBaths(1 + random.nextInt(4));
+        }
+        if (random.nextInt(4) == 0) {
+            filters.setCities(someOf(random, CITIES));
+        }
+        if (random.nextInt(6) == 0) {
+            filters.setZipCodes(someOf(random, ZIPCODES));
+        }
+        if (random.nextInt(6) == 0) {
+            filters.setVariableDataTypes(someOf(random, VARIABLE_DATA_TYPES));
+        }
+        if (random.nextInt(5) == 0) {
+            filters.setAvailableBy(BASE.plusDays(random.nextInt(100) - 5));
+        }
+        if (random.nextInt(6) == 0) {
+            filters.setHasAirConditioning(random.nextBoolean());
+        }
+        if (random.nextInt(6) == 0) {
+            filters.setHasFireplace(random.nextBoolean());
+        }
+        if (random.nextInt(5) == 0) {
+            filters.setHasPool(random.nextBoolean());
+        }
+        if (random.nextInt(6) == 0) {
+            filters.setHasSpa(random.nextBoolean());
+        }
+        return filters;
+    }
+
+    private static List<String> someOf(Random random, String[] values) {
+        List<String> chosen = new ArrayList<>();
+        for (String value : values) {
+            if (random.nextBoolean()) {
+                chosen.add(value);
+            }
+        }
+        if (chosen.isEmpty() || random.nextInt(5) == 0) {
+            chosen.add("Unknown");
+        }
+        return chosen;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return random.nextInt(10) == 0 ? null : values[random.nextInt(values.length)];
+    }
+
+    private static Boolean flag(Random random) {
+        int value = random.nextInt(5);
+        return value == 0 ? null : value % 2 == 0;
+    }
+}
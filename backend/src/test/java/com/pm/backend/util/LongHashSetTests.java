@@ -0,0 +1,96 @@
+package com.pm.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTests {
+
+    @Test
+    void membershipMatchesAHashSet() {
+        Random random = new Random(13);
+        for (int run = 0; run < 300; run++) {
+            int count = random.nextInt(run < 50 ? 8 : 2_000);
+            // Sequential runs and repeats alongside random values, so probe chains and duplicates occur
+            long[] values = new long[count];
+            long next = random.nextLong();
+            for (int i = 0; i < count; i++) {
+                values[i] = switch (random.nextInt(4)) {
+                    case 0 -> next++;
+                    case 1 -> i > 0 ? values[random.nextInt(i)] : 0L;
+                    case 2 -> random.nextInt(100) - 50;
+                    default -> random.nextLong();
+                };
+            }
+            Set<Long> expected = new HashSet<>();
+            for (long value : values) {
+                expected.add(value);
+            }
+
+            LongHashSet set = LongHashSet.of(values);
+            assertEquals(expected.size(), set.size());
+            assertEquals(expected.isEmpty(), set.isEmpty());
+            for (long value : expected) {
+                assertTrue(set.contains(value), "missing " + value);
+            }
+            for (int i = 0; i < 200; i++) {
+                long probe = i % 2 == 0 ? random.nextLong() : random.nextInt(200) - 100;
+                assertEquals(expected.contains(probe), set.contains(probe), "probe " + probe);
+            }
+        }
+    }
+
+    @Test
+    void zeroAndExtremesAreOrdinaryMembers() {
+        LongHashSet set = LongHashSet.of(0L, Long.MIN_VALUE, Long.MAX_VALUE, -1L);
+        assertEquals(4, set.size());
+        for (long value : new long[]{0L, Long.MIN_VALUE, Long.MAX_VALUE, -1L}) {
+            assertTrue(set.contains(value));
+        }
+        assertFalse(set.contains(1L));
+        assertFalse(LongHashSet.of(1L).contains(0L));
+    }
+
+    @Test
+    void emptySetsContainNothing() {
+        for (LongHashSet empty : new LongHashSet[]{LongHashSet.of(), LongHashSet.ofStrings(List.of())}) {
+            assertTrue(empty.isEmpty());
+            assertEquals(0, empty.size());
+            assertFalse(empty.contains(0L));
+            assertFalse(empty.containsString(""));
+            assertFalse(empty.containsString(null));
+        }
+    }
+
+    @Test
+    void stringMembershipMatchesAHashSet() {
+        Random random = new Random(17);
+        List<String> zpids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            zpids.add(Integer.toString(random.nextInt(1_000_000)));
+        }
+        zpids.add("");
+        zpids.add("São Paulo");
+        Set<String> expected = new HashSet<>(zpids);
+
+        LongHashSet set = LongHashSet.ofStrings(zpids);
+        assertEquals(expected.size(), set.size());
+        for (String zpid : expected) {
+            assertTrue(set.containsString(zpid), "missing " + zpid);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            String probe = Integer.toString(random.nextInt(2_000_000));
+            assertEquals(expected.contains(probe), set.containsString(probe), "probe " + probe);
+        }
+        assertFalse(set.containsString(null));
+        assertFalse(set.containsString("Sao Paulo"));
+    }
+}
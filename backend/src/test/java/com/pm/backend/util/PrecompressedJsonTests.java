@@ -0,0 +1,93 @@
+package com.pm.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// GZIPInputStream checks the trailer's CRC-32 and size itself; the trailer is also compared directly
+class PrecompressedJsonTests {
+
+    @Test
+    void listingBodyWithEachTailInflatesToTheConcatenation() throws IOException {
+        RawJson body = RawJson.of("{\"zpid\":\"12345\",\"price\":450000.00,\"addressCity\":\"São Paulo\",\"beds\":3");
+        for (int level : new int[]{Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION}) {
+            PrecompressedJson gzip = PrecompressedJson.compress(body, level);
+            assertRoundTrip(gzip, body, RawJson.of(",\"saved\":true}"));
+            assertRoundTrip(gzip, body, RawJson.of(",\"saved\":false}"));
+        }
+    }
+
+    @Test
+    void emptyBodyAndEmptyTailStillFormAValidMember() throws IOException {
+        PrecompressedJson empty = PrecompressedJson.compress(RawJson.of(""), Deflater.DEFAULT_COMPRESSION);
+        assertRoundTrip(empty, RawJson.of(""), RawJson.of(""));
+        assertRoundTrip(empty, RawJson.of(""), RawJson.of("{}"));
+
+        RawJson body = RawJson.of("{\"zpid\":\"1\"}");
+        assertRoundTrip(PrecompressedJson.compress(body, Deflater.DEFAULT_COMPRESSION), body, RawJson.of(""));
+    }
+
+    @Test
+    void bodiesLargerThanTheDeflateBufferRoundTrip() throws IOException {
+        // Random text compresses poorly, so the deflated prefix spans several output buffers
+        Random random = new Random(3);
+        StringBuilder json = new StringBuilder("[");
+        while (json.length() < 200_000) {
+            json.append("{\"zpid\":\"").append(random.nextLong()).append("\",\"note\":\"")
+                    .append(Long.toString(random.nextLong(), 36)).append("\"},");
+        }
+        RawJson body = RawJson.of(json.toString());
+        PrecompressedJson gzip = PrecompressedJson.compress(body, Deflater.BEST_SPEED);
+        assertRoundTrip(gzip, body, RawJson.of("{}]"));
+    }
+
+    @Test
+    void tailsUpToOneStoredBlockAreAccepted() throws IOException {
+        RawJson body = RawJson.of("{\"notes\":");
+        PrecompressedJson gzip = PrecompressedJson.compress(body, Deflater.DEFAULT_COMPRESSION);
+        assertRoundTrip(gzip, body, RawJson.of("\"" + "x".repeat(0xffff - 3) + "\"}"));
+
+        RawJson tooLong = RawJson.of("\"" + "x".repeat(0xffff - 2) + "\"}");
+        assertThrows(IllegalArgumentException.class, () -> gzip.writeGzip(tooLong, new ByteArrayOutputStream()));
+    }
+
+    private static void assertRoundTrip(PrecompressedJson gzip, RawJson body, RawJson tail) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gzip.writeGzip(tail, out);
+        byte[] member = out.toByteArray();
+        assertEquals(gzip.gzipLength(tail), member.length);
+
+        byte[] expected = concat(body.asUnquotedUTF8(), tail.asUnquotedUTF8());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(member))) {
+            assertArrayEquals(expected, in.readAllBytes(),
+                    () -> "inflated to something else than " + new String(expected, StandardCharsets.UTF_8));
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(expected);
+        ByteBuffer trailer = ByteBuffer.wrap(member, member.length - 8, 8).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals((int) crc.getValue(), trailer.getInt());
+        assertEquals(expected.length, trailer.getInt());
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,145 @@
+package com.pm.backend.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Both implementations run over the same columns and selections and must leave identical bitmaps,
+// which must also match a plain per-row loop. Surefire starts the JVM with the vector module.
+class PredicateKernelsTests {
+    private static final long[] LONG_EXTREMES = {Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MAX_VALUE, Long.MAX_VALUE - 1, 0, -1, 1};
+    private static final int[] INT_EXTREMES = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 0, -1, 1};
+
+    private static final PredicateKernels SCALAR = PredicateKernels.create(false);
+    private static final PredicateKernels VECTOR = PredicateKernels.create(true);
+
+    @BeforeAll
+    static void vectorKernelsAreInUse() {
+        assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "surefire must run with --add-modules jdk.incubator.vector");
+        assumeTrue(VectorPredicateKernels.isAccelerated(), "no vector registers on this machine");
+        assertInstanceOf(VectorPredicateKernels.class, VECTOR);
+        assertInstanceOf(ScalarPredicateKernels.class, SCALAR);
+    }
+
+    @Test
+    void longRangesMatch() {
+        Random random = new Random(21);
+        for (int run = 0; run < 3_000; run++) {
+            long[] column = new long[rowCount(random, run)];
+            for (int i = 0; i < column.length; i++) {
+                column[i] = random.nextInt(4) == 0 ? pick(random, LONG_EXTREMES) : random.nextInt(100) - 50;
+            }
+            long min = random.nextInt(3) == 0 ? pick(random, LONG_EXTREMES) : random.nextInt(120) - 60;
+            long max = random.nextInt(3) == 0 ? pick(random, LONG_EXTREMES) : random.nextInt(120) - 60;
+            Words words = words(random, column.length);
+
+            long[] expected = words.selection.clone();
+            for (int word = words.from; word < words.to; word++) {
+                long matches = 0;
+                for (int bit = 0; bit < 64 && 64 * word + bit < column.length; bit++) {
+                    long value = column[64 * word + bit];
+                    matches |= (min <= value && value <= max ? 1L : 0L) << bit;
+                }
+                expected[word] &= matches;
+            }
+
+            long[] scalar = words.selection.clone();
+            SCALAR.andRange(column, min, max, scalar, words.from, words.to);
+            long[] vector = words.selection.clone();
+            VECTOR.andRange(column, min, max, vector, words.from, words.to);
+            String search = "[" + min + ", " + max + "] over " + column.length + " rows, words " + words.from + ".." + words.to;
+            assertArrayEquals(expected, scalar, search);
+            assertArrayEquals(expected, vector, search);
+        }
+    }
+
+    @Test
+    void intRangesAndEqualityMatch() {
+        Random random = new Random(22);
+        for (int run = 0; run < 3_000; run++) {
+            int[] column = new int[rowCount(random, run)];
+            for (int i = 0; i < column.length; i++) {
+                column[i] = random.nextInt(4) == 0 ? INT_EXTREMES[random.nextInt(INT_EXTREMES.length)] : random.nextInt(100) - 50;
+            }
+            int min = random.nextInt(3) == 0 ? INT_EXTREMES[random.nextInt(INT_EXTREMES.length)] : random.nextInt(120) - 60;
+            int max = random.nextInt(3) == 0 ? INT_EXTREMES[random.nextInt(INT_EXTREMES.length)] : random.nextInt(120) - 60;
+            Words words = words(random, column.length);
+
+            long[] expectedRange = words.selection.clone();
+            long[] expectedEqual = words.selection.clone();
+            for (int word = words.from; word < words.to; word++) {
+                long inRange = 0;
+                long equal = 0;
+                for (int bit = 0; bit < 64 && 64 * word + bit < column.length; bit++) {
+                    int value = column[64 * word + bit];
+                    inRange |= (min <= value && value <= max ? 1L : 0L) << bit;
+                    equal |= (value == min ? 1L : 0L) << bit;
+                }
+                expectedRange[word] &= inRange;
+                expectedEqual[word] &= equal;
+            }
+
+            String search = "[" + min + ", " + max + "] over " + column.length + " rows, words " + words.from + ".." + words.to;
+            for (PredicateKernels kernels : new PredicateKernels[]{SCALAR, VECTOR}) {
+                long[] range = words.selection.clone();
+                kernels.andRange(column, min, max, range, words.from, words.to);
+                assertArrayEquals(expectedRange, range, kernels.getClass().getSimpleName() + " " + search);
+
+                long[] equal = words.selection.clone();
+                kernels.andEqual(column, min, equal, words.from, words.to);
+                assertArrayEquals(expectedEqual, equal, kernels.getClass().getSimpleName() + " = " + min);
+            }
+        }
+    }
+
+    @Test
+    void untouchedWordsStayAsTheyWere() {
+        long[] column = new long[640];
+        Arrays.fill(column, 5);
+        for (PredicateKernels kernels : new PredicateKernels[]{SCALAR, VECTOR}) {
+            long[] selection = new long[10];
+            Arrays.fill(selection, -1L);
+            kernels.andRange(column, 6, 10, selection, 3, 7);
+            assertArrayEquals(new long[]{-1, -1, -1, 0, 0, 0, 0, -1, -1, -1}, selection);
+        }
+    }
+
+    // Mostly short columns ending mid-word, with some long enough for many full vectors
+    private static int rowCount(Random random, int run) {
+        return run % 10 == 0 ? 64 * random.nextInt(40) + random.nextInt(64) : random.nextInt(500);
+    }
+
+    private record Words(long[] selection, int from, int to) {}
+
+    // A selection with some words already zero and a random [from, to) subrange of its words
+    private static Words words(Random random, int rows) {
+        int count = (rows + 63) >>> 6;
+        long[] selection = new long[count];
+        for (int word = 0; word < count; word++) {
+            selection[word] = switch (random.nextInt(5)) {
+                case 0 -> 0L;
+                case 1 -> random.nextLong();
+                default -> -1L;
+            };
+        }
+        if (count > 0 && rows % 64 != 0) {
+            // Bits past the last row are never set in a real selection
+            selection[count - 1] &= -1L >>> (64 - rows % 64);
+        }
+        int from = random.nextInt(3) == 0 ? random.nextInt(count + 1) : 0;
+        int to = random.nextInt(3) == 0 ? from + random.nextInt(count - from + 1) : count;
+        return new Words(selection, from, to);
+    }
+
+    private static long pick(Random random, long[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,151 @@
+package com.pm.backend.util;
+
+import com.pm.backend.dto.ListingFilterCriteriaDTO;
+import com.pm.backend.model.Listing;
+import com.pm.backend.specification.ListingSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every listing must be matched to exactly the saved searches ListingSpecification.matches accepts
+class SavedSearchIndexTests {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void bulkLoadedIndexMatchesEverySearchExactlyOnce() {
+        Random random = new Random(5);
+        Map<Long, ListingFilterCriteriaDTO> searches = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            searches.put(id, criteria(random));
+        }
+        SavedSearchIndex index = new SavedSearchIndex(searches);
+        assertEquals(searches.size(), index.size());
+
+        for (int i = 0; i < 2_000; i++) {
+            assertMatches(index, searches, listing(random));
+        }
+    }
+
+    @Test
+    void putsAndRemovesKeepTheIndexExact() {
+        Random random = new Random(6);
+        Map<Long, ListingFilterCriteriaDTO> searches = new HashMap<>();
+        SavedSearchIndex index = new SavedSearchIndex();
+        for (int step = 0; step < 3_000; step++) {
+            long id = 1 + random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                searches.remove(id);
+            } else {
+                // Replacing a search moves it out of the buckets its old criteria chose
+                ListingFilterCriteriaDTO criteria = criteria(random);
+                index.put(id, criteria);
+                searches.put(id, criteria);
+            }
+            if (step % 10 == 0) {
+                assertEquals(searches.size(), index.size());
+                assertMatches(index, searches, listing(random));
+            }
+        }
+    }
+
+    private static void assertMatches(SavedSearchIndex index, Map<Long, ListingFilterCriteriaDTO> searches, Listing listing) {
+        TreeSet<Long> expected = new TreeSet<>();
+        searches.forEach((id, criteria) -> {
+            if (ListingSpecification.matches(criteria, listing)) {
+                expected.add(id);
+            }
+        });
+        List<Long> found = new ArrayList<>();
+        index.match(listing, found::add);
+        assertEquals(expected.size(), found.size(), "an id was reported twice: " + found);
+        assertTrue(expected.containsAll(found) && found.containsAll(expected),
+                "expected " + expected + " but got " + new TreeSet<>(found) + " for " + listing);
+    }
+
+    private static ListingFilterCriteriaDTO criteria(Random random) {
+        ListingFilterCriteriaDTO criteria = new ListingFilterCriteriaDTO();
+        if (random.nextInt(2) == 0) {
+            criteria.setMinPrice(price(random));
+        }
+        if (random.nextInt(2) == 0) {
+            criteria.setMaxPrice(price(random));
+        }
+        if (random.nextInt(3) == 0) {
+            criteria.setMinArea(500 + 100 * random.nextInt(15));
+        }
+        if (random.nextInt(3) == 0) {
+            criteria.setMaxArea(500 + 100 * random.nextInt(15));
+        }
+        if (random.nextInt(3) == 0) {
+            // Occasionally more cities x zipcodes than a search is filed under
+            criteria.setCities(values(random, "City", random.nextInt(10) == 0 ? 70 : 1 + random.nextInt(3)));
+        }
+        if (random.nextInt(4) == 0) {
+            criteria.setZipCodes(values(random, "Zip", 1 + random.nextInt(3)));
+        }
+        if (random.nextInt(3) == 0) {
+            criteria.setBeds(1 + random.nextInt(4));
+        }
+        if (random.nextInt(4) == 0) {
+            criteria.setBaths(1 + random.nextInt(3));
+        }
+        if (random.nextInt(8) == 0) {
+            criteria.setVariableDataTypes(List.of("PRICE_REDUCTION"));
+        }
+        if (random.nextInt(8) == 0) {
+            criteria.setAvailableBy(BASE.plusDays(random.nextInt(60)));
+        }
+        if (random.nextInt(8) == 0) {
+            criteria.setHasPool(random.nextBoolean());
+        }
+        if (random.nextInt(10) == 0) {
+            criteria.setHasAirConditioning(random.nextBoolean());
+        }
+        return criteria;
+    }
+
+    private static Listing listing(Random random) {
+        Listing listing = new Listing();
+        listing.setZpid(Long.toString(random.nextLong()));
+        listing.setPrice(random.nextInt(10) == 0 ? null : price(random));
+        listing.setArea(random.nextInt(8) == 0 ? null : 500 + 50 * random.nextInt(30));
+        listing.setAddressCity(random.nextInt(10) == 0 ? null : "City" + random.nextInt(5));
+        listing.setAddressZipcode(random.nextInt(10) == 0 ? null : "Zip" + random.nextInt(5));
+        listing.setBeds(random.nextInt(10) == 0 ? null : 1 + random.nextInt(4));
+        listing.setBaths(random.nextInt(10) == 0 ? null : 1 + random.nextInt(3));
+        listing.setVariableDataType(random.nextBoolean() ? "PRICE_REDUCTION" : null);
+        listing.setAvailabilityDate(random.nextInt(3) == 0 ? null : BASE.plusDays(random.nextInt(60)));
+        listing.setHasPool(random.nextInt(3) == 0 ? null : random.nextBoolean());
+        listing.setHasAirConditioning(random.nextInt(3) == 0 ? null : random.nextBoolean());
+        return listing;
+    }
+
+    // Mostly whole dollars, so bounds and prices coincide; some with sub-cent digits
+    private static BigDecimal price(Random random) {
+        BigDecimal dollars = BigDecimal.valueOf(800 + 100 * random.nextInt(20));
+        return switch (random.nextInt(5)) {
+            case 0 -> dollars.add(new BigDecimal("0.005"));
+            case 1 -> dollars.subtract(new BigDecimal("0.01"));
+            default -> dollars;
+        };
+    }
+
+    private static List<String> values(Random random, String prefix, int count) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(prefix + (count > 5 ? i : random.nextInt(6)));
+        }
+        return values;
+    }
+}
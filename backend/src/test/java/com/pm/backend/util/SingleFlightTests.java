@@ -0,0 +1,175 @@
+package com.pm.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTests {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            runs.incrementAndGet();
+            await(release);
+            return 42;
+        }));
+        awaitInFlight(singleFlight);
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                runs.incrementAndGet();
+                return -1;
+            })));
+        }
+        awaitShared(singleFlight, 3);
+        release.countDown();
+
+        assertEquals(42, leader.get(10, TimeUnit.SECONDS));
+        for (Future<Integer> follower : followers) {
+            assertEquals(42, follower.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, runs.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void leadersExceptionReachesEveryCaller() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("bad search");
+
+        Future<Throwable> leader = executor.submit(() -> thrownBy(() -> singleFlight.execute("key", () -> {
+            await(release);
+            throw failure;
+        })));
+        awaitInFlight(singleFlight);
+        Future<Throwable> follower = executor.submit(() -> thrownBy(() -> singleFlight.execute("key", () -> -1)));
+        awaitShared(singleFlight, 1);
+        release.countDown();
+
+        assertSame(failure, leader.get(10, TimeUnit.SECONDS));
+        assertSame(failure, follower.get(10, TimeUnit.SECONDS));
+
+        // A failed call is not remembered
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(7, singleFlight.execute("key", () -> 7));
+    }
+
+    @Test
+    void followerStopsWaitingAfterTheTimeoutAndComputesItself() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            return 1;
+        }));
+        awaitInFlight(singleFlight);
+        try {
+            assertEquals(2, singleFlight.execute("key", () -> 2));
+            assertEquals(1, singleFlight.timedOutCount());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1, leader.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void followersExceptionAfterATimeoutIsItsOwn() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            return 1;
+        }));
+        awaitInFlight(singleFlight);
+        try {
+            assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+                throw new IllegalStateException("follower");
+            }));
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1, leader.get(10, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void differentKeysDoNotWaitOnEachOther() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("a", () -> {
+            await(release);
+            return 1;
+        }));
+        awaitInFlight(singleFlight);
+        try {
+            assertEquals(2, singleFlight.execute("b", () -> 2));
+            assertEquals(0, singleFlight.sharedCount());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1, leader.get(10, TimeUnit.SECONDS));
+    }
+
+    private static Throwable thrownBy(Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            return e;
+        }
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitInFlight(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.inFlightCount() == 0) {
+            assertTrue(System.nanoTime() < deadline, "the leader never started");
+            Thread.sleep(1);
+        }
+    }
+
+    // A follower counts itself as shared just before it starts waiting on the leader
+    private static void awaitShared(SingleFlight<?, ?> singleFlight, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.sharedCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "followers never joined");
+            Thread.sleep(1);
+        }
+    }
+}
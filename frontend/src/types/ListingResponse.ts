@@ -17,11 +17,12 @@ export interface ListingResponse {
   hasVideo: boolean;
   zestimate: number;
   availabilityDate: string | null;
-  variableData: string;
-  carouselPhotos: string;
-  factsAndFeatures: string;
+  variableData: Record<string, unknown> | null;
+  photoCount: number;
+  factsAndFeatures: Record<string, unknown> | null;
   createdAt: string;
   updatedAt: string;
+  saved?: boolean;
 }
 
 export interface PaginatedResponse {